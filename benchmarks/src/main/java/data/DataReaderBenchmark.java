@@ -0,0 +1,74 @@
+package data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de {@link DataReader#getJsonDataToMap(String)} según el tamaño del archivo:
+ * con el archivo ya en la caché de {@link TestDataStore} (lo habitual dentro de una suite)
+ * y leyéndolo desde disco en cada llamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataReaderBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    int rows;
+
+    private final DataReader reader = new DataReader();
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("purchase-order-", ".json");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            for (int i = 0; i < rows; i++) {
+                out.write(i == 0 ? "" : ",\n");
+                out.write("  {\"email\" : \"user" + i + "@gmail.com\", \"password\" : \"Iamking@000\", \"product\" : \"IPHONE 13 PRO\"}");
+            }
+            out.write("\n]");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        TestDataStore.clear();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<HashMap<String, String>> cached() throws IOException {
+        return reader.getJsonDataToMap(file.toString());
+    }
+
+    @Benchmark
+    public List<HashMap<String, String>> cold() throws IOException {
+        TestDataStore.clear(); // Obliga a leer y parsear el archivo de nuevo
+        return reader.getJsonDataToMap(file.toString());
+    }
+}
@@ -0,0 +1,60 @@
+package pageobjects;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de construir cada page object: el constructor de {@code AbstractComponents} ejecuta
+ * {@code PageFactory.initElements} sobre todos sus campos {@code @FindBy}. La inicialización no habla con el
+ * navegador (los elementos son proxies perezosos), así que se usa un WebDriver falso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageFactoryBenchmark {
+
+    @Param({"LandingPage", "ProductCataloguePage", "CartPage", "CheckoutPage", "ConfirmationPage", "OrderPage", "SolotodoPage"})
+    String page;
+
+    private WebDriver driver;
+    private Constructor<?> constructor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    if ("toString".equals(method.getName())) {
+                        return "FakeDriver";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        constructor = Class.forName("pageobjects." + page).getConstructor(WebDriver.class);
+    }
+
+    @Benchmark
+    public void initElements(Blackhole bh) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        bh.consume(constructor.newInstance(driver));
+    }
+}
@@ -0,0 +1,89 @@
+package pageobjects;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import testcomponents.DriverBootstrap;
+import testcomponents.FixtureServer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductCataloguePage#getProductByName(String)} contra la copia local del catálogo con N productos,
+ * buscando el último. {@code cold} construye una página nueva en cada llamada (incluye leer los nombres del
+ * navegador); {@code warm} reutiliza la página y su índice. Necesita Chrome; se ejecuta en modo headless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int products;
+
+    private FixtureServer server;
+    private WebDriver driver;
+    private ProductCataloguePage warmPage;
+    private String target;
+
+    @Setup(Level.Trial)
+    public void openCatalogue() throws IOException {
+        if (System.getProperty("fixtures.dir") == null) {
+            System.setProperty("fixtures.dir", "../src/test/java/resources/fixtures"); // Ejecutado desde benchmarks/
+        }
+        server = FixtureServer.start(0, products);
+        System.setProperty("app.baseUrl", server.getBaseUrl());
+
+        DriverBootstrap.driverFor("chrome");
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--remote-allow-origins=*");
+        driver = new ChromeDriver(options);
+
+        LandingPage landingPage = new LandingPage(driver);
+        landingPage.goTo();
+        warmPage = landingPage.loginApplication("anshika@gmail.com", "Iamking@000");
+        warmPage.getProductList(); // Espera a que cargue el catálogo
+        target = "PRODUCT " + products;
+        if (warmPage.getProductByName(target) == null) {
+            throw new IllegalStateException("El catálogo no contiene " + target);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public WebElement cold() {
+        return new ProductCataloguePage(driver).getProductByName(target);
+    }
+
+    @Benchmark
+    public WebElement warm() {
+        return warmPage.getProductByName(target);
+    }
+}
@@ -0,0 +1,63 @@
+package resources;
+
+import com.aventstack.extentreports.ExtentReports;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Coste de crear el reporte con la configuración de {@link ExtentReporterNG}, registrar N tests y guardarlo
+ * ({@code flush}) en un directorio temporal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtentReportBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int tests;
+
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("extent-bench-");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ExtentReports createAndFlush() {
+        ExtentReports extent = ExtentReporterNG.createReportObject(dir.resolve("index.html").toString());
+        for (int i = 0; i < tests; i++) {
+            extent.createTest("test" + i).pass("ok");
+        }
+        extent.flush();
+        return extent;
+    }
+}
@@ -0,0 +1,39 @@
+package testcomponents;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de preparar el driver de Chrome antes de abrir una sesión, cada medida en una JVM nueva.
+ * {@code webDriverManagerSetup} es lo que hacía cada {@code InitializeDriver()} (detectar la versión del
+ * navegador y resolver la del driver); {@code bootstrapFirstCall} es la primera llamada de una ejecución con
+ * {@link DriverBootstrap}, que lee la ruta de su caché en disco (las siguientes sesiones de la misma JVM no
+ * pagan nada). La primera fork de {@code bootstrapFirstCall} rellena la caché si no existía.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class DriverStartupBenchmark {
+
+    @Benchmark
+    public String webDriverManagerSetup() {
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        return manager.getDownloadedDriverPath();
+    }
+
+    @Benchmark
+    public String bootstrapFirstCall() {
+        return DriverBootstrap.driverFor("chrome");
+    }
+}
@@ -0,0 +1,103 @@
+package testcomponents;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de codificar y escribir una captura de 1920x1080 con {@link ScreenshotPipeline} según el formato y la escala
+ * configurados. Se mide la codificación directamente porque {@code submit} deduplicaría la misma imagen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ScreenshotBenchmark {
+
+    @Param({"png", "jpg"})
+    String format;
+
+    @Param({"1.0", "0.5"})
+    double scale;
+
+    private ScreenshotPipeline pipeline;
+    private byte[] png;
+    private Path dir;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("screenshot-bench-");
+        target = dir.resolve("capture." + format);
+        pipeline = new ScreenshotPipeline(dir.toString(), format, scale, 0.8f);
+        png = samplePng();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return pipeline.encode(png);
+    }
+
+    @Benchmark
+    public Path encodeAndWrite() throws IOException {
+        return Files.write(target, pipeline.encode(png));
+    }
+
+    /**
+     * Imagen parecida a una página: fondo con degradado, bloques de color y texto.
+     */
+    private static byte[] samplePng() throws IOException {
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, Color.WHITE, 1920, 1080, new Color(230, 235, 245)));
+            g.fillRect(0, 0, 1920, 1080);
+            g.setColor(new Color(34, 34, 34));
+            g.fillRect(0, 0, 1920, 64);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+            for (int i = 0; i < 12; i++) {
+                int x = 40 + (i % 4) * 470;
+                int y = 120 + (i / 4) * 300;
+                g.setColor(new Color(200, 200, 200));
+                g.drawRect(x, y, 440, 260);
+                g.setColor(Color.DARK_GRAY);
+                g.drawString("PRODUCT " + i + "  $ " + (1000 + i * 37), x + 16, y + 40);
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
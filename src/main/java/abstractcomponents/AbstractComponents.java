@@ -1,16 +1,18 @@
 package abstractcomponents;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import pageobjects.CartPage;
 import pageobjects.OrderPage;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Esta es una clase base abstracta que proporciona funcionalidades comunes para interactuar con las páginas de la aplicación web.
@@ -20,16 +22,28 @@ import java.time.Duration;
 public class AbstractComponents {
 
     WebDriver driver;
+    protected AdaptiveWait adaptiveWait;
+    // Caché de los elementos @FindBy de esta instancia de página
+    private final CachingElementLocatorFactory elementCache;
+
+    // Tiempo máximo de espera de cada condición
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    // Tiempo máximo de la espera de estabilidad de la UI (-Dwait.settleMaxMillis): no más que la pausa fija más
+    // corta que sustituyó (1 s)
+    private static final Duration SETTLE_TIMEOUT = Duration.ofMillis(Long.getLong("wait.settleMaxMillis", 1000));
 
     /**
      * Constructor de la clase AbstractComponents.
-     * Inicializa el WebDriver y utiliza la clase {@link PageFactory} para inicializar los elementos de la página.
+     * Inicializa el WebDriver y utiliza la clase {@link PageFactory} para inicializar los elementos de la página,
+     * incluidos los de la subclase, con un {@link CachingElementLocatorFactory} que evita repetir cada findElement.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public AbstractComponents(WebDriver driver) {
         this.driver = driver; // Asigna el WebDriver a la clase
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página utilizando PageFactory
+        this.adaptiveWait = new AdaptiveWait(driver); // Motor de esperas basado en eventos
+        this.elementCache = new CachingElementLocatorFactory(driver);
+        PageFactory.initElements(elementCache.decorator(), this); // Inicializa los elementos de la página (y de la subclase) una sola vez
     }
 
     // Elementos de la página mapeados con la anotación @FindBy
@@ -62,37 +76,102 @@ public class AbstractComponents {
 
     /**
      * Espera hasta que un elemento sea visible en la página.
-     * Utiliza un {@link WebDriverWait} para esperar hasta que el elemento sea localizado y visible.
+     * Utiliza {@link AdaptiveWait} para sondear con back-off hasta que el elemento sea localizado y visible.
      *
      * @param findBy El localizador del elemento que se debe esperar.
      */
     public void waitForElementToAppear(By findBy) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10)); // Espera de hasta 10 segundos
-        wait.until(ExpectedConditions.visibilityOfElementLocated(findBy)); // Espera hasta que el elemento sea visible
+        awaitCondition("visible " + findBy, ExpectedConditions.visibilityOfElementLocated(findBy));
     }
 
     /**
      * Espera hasta que un WebElement sea visible en la página.
-     * Utiliza un {@link WebDriverWait} para esperar hasta que el elemento WebElement sea visible.
+     * Utiliza {@link AdaptiveWait} para sondear con back-off hasta que el elemento WebElement sea visible.
      *
      * @param element El elemento WebElement que se debe esperar.
      */
     public void waitForWebElementToAppear(WebElement element) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10)); // Espera de hasta 10 segundos
-        wait.until(ExpectedConditions.visibilityOf(element)); // Espera hasta que el WebElement sea visible
+        awaitCondition("visible WebElement", ExpectedConditions.visibilityOf(element));
     }
 
     /**
-     * Espera hasta que un WebElement se vuelva invisible en la página.
-     * Utiliza un {@link WebDriverWait} para esperar hasta que el elemento se vuelva invisible.
+     * Espera hasta que un WebElement se vuelva invisible en la página y la interfaz quede estable.
+     * En lugar de una pausa fija, espera a que no haya animaciones, peticiones ni mutaciones del DOM pendientes.
      *
      * @param element El elemento WebElement que se debe esperar.
      * @throws InterruptedException Si la espera se interrumpe.
      */
     public void waitForWebElementToDissapear(WebElement element) throws InterruptedException {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10)); // Espera de hasta 10 segundos
-        wait.until(ExpectedConditions.invisibilityOf(element)); // Espera hasta que el WebElement sea invisible
-        Thread.sleep(5000); // Pausa adicional de 5 segundos para asegurar la desaparición del elemento
+        adaptiveWait.until("invisible WebElement", DEFAULT_TIMEOUT, ExpectedConditions.invisibilityOf(element)); // Espera hasta que el WebElement sea invisible
+        waitForUiToSettle(); // Espera a que la interfaz termine de reaccionar
+    }
+
+    /**
+     * Espera a que la interfaz quede estable (red inactiva, Angular estable y DOM sin cambios).
+     * Es una espera de mejor esfuerzo que se llama después de la condición del elemento (que ya esperó lo necesario):
+     * dura como mucho {@code -Dwait.settleMaxMillis} (por defecto 1000 ms), porque una página que nunca queda quieta
+     * (XHR de sondeo, balizas de analítica, carruseles animados) la agotaría en cada llamada. Los agotamientos quedan
+     * como timeouts de "uiSettled" en {@link WaitMetrics}.
+     *
+     * @throws InterruptedException Si la espera se interrumpe.
+     */
+    public void waitForUiToSettle() throws InterruptedException {
+        adaptiveWait.untilUiSettled(SETTLE_TIMEOUT);
+    }
+
+    /**
+     * Crea una consulta que resuelve varias lecturas independientes de la página (textos, visibilidad, número de
+     * elementos) en una sola llamada {@code executeScript}. Ver {@link PageQuery}.
+     *
+     * @return Una consulta vacía sobre el driver de esta página.
+     */
+    protected PageQuery query() {
+        return new PageQuery(driver, adaptiveWait, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Lee en una sola llamada {@code executeScript} el texto visible de todos los elementos que coinciden con el selector,
+     * en lugar de un {@code getText()} por elemento. Espera (como haría la espera implícita de {@code findElements})
+     * hasta que haya al menos un elemento.
+     *
+     * @param cssSelector Selector CSS de los elementos.
+     * @param childCss    Selector CSS de un hijo del que se lee el texto, o null para leer el del propio elemento.
+     * @return Los textos en orden de documento, o una lista vacía si no aparece ningún elemento a tiempo.
+     */
+    protected List<String> readTexts(String cssSelector, String childCss) {
+        return query().texts(cssSelector, cssSelector, childCss).await().getTexts(cssSelector);
+    }
+
+    /**
+     * Devuelve, en una sola llamada, el elemento que ocupa la posición indicada entre los que coinciden con el selector.
+     *
+     * @param cssSelector Selector CSS de los elementos.
+     * @param index       Posición del elemento (desde 0), en orden de documento.
+     * @return El elemento, o null si no existe.
+     */
+    protected WebElement elementAt(String cssSelector, int index) {
+        return (WebElement) ((JavascriptExecutor) driver)
+                .executeScript("return document.querySelectorAll(arguments[0])[arguments[1]] || null;", cssSelector, index);
+    }
+
+    /**
+     * Vacía la caché de elementos de la página. Debe llamarse después de navegar a otra URL
+     * con la misma instancia de página.
+     */
+    protected void invalidateElementCache() {
+        elementCache.invalidate();
+    }
+
+    /**
+     * Ejecuta una espera del {@link AdaptiveWait} desde métodos que no declaran {@link InterruptedException}.
+     */
+    private void awaitCondition(String name, Function<WebDriver, ?> condition) {
+        try {
+            adaptiveWait.until(name, DEFAULT_TIMEOUT, condition);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera interrumpida: " + name, e);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package abstractcomponents;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Motor de esperas basado en eventos del navegador en lugar de pausas fijas ({@code Thread.sleep}).
+ * <p>
+ * Inyecta en la página un pequeño script que observa las mutaciones del DOM ({@code MutationObserver}),
+ * cuenta las peticiones fetch/XHR en curso y consulta la estabilidad de Angular
+ * ({@code getAllAngularTestabilities}). Cada consulta es una sola llamada {@code executeScript}.
+ * El sondeo empieza en intervalos cortos y los va ampliando (back-off) hasta un máximo,
+ * y la duración real de cada espera se registra en {@link WaitMetrics}.
+ */
+public class AdaptiveWait {
+
+    private static final Duration INITIAL_POLL = Duration.ofMillis(25);
+    private static final Duration MAX_POLL = Duration.ofMillis(400);
+    private static final double BACKOFF = 1.5;
+
+    // Tiempo sin mutaciones del DOM para considerar la UI estable
+    private static final long DOM_QUIET_MILLIS = Long.getLong("wait.domQuietMillis", 150);
+
+    /**
+     * Instala (una sola vez por documento) los observadores y devuelve el estado actual de la UI.
+     */
+    private static final String UI_STATE_SCRIPT =
+            "var w = window;"
+            + "if (!w.__adaptiveWait) {"
+            + "  var s = w.__adaptiveWait = { lastMutation: Date.now(), pending: 0 };"
+            + "  try {"
+            + "    new MutationObserver(function () { s.lastMutation = Date.now(); })"
+            + "      .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  } catch (e) {}"
+            + "  if (w.fetch) {"
+            + "    var f = w.fetch;"
+            + "    w.fetch = function () {"
+            + "      s.pending++;"
+            + "      return f.apply(this, arguments).finally(function () { s.pending--; });"
+            + "    };"
+            + "  }"
+            + "  var send = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    s.pending++;"
+            + "    this.addEventListener('loadend', function () { s.pending--; });"
+            + "    return send.apply(this, arguments);"
+            + "  };"
+            + "}"
+            + "var angularStable = null;"
+            + "if (w.getAllAngularTestabilities) {"
+            + "  angularStable = w.getAllAngularTestabilities().every(function (t) { return t.isStable(); });"
+            + "}"
+            + "return {"
+            + "  quietMillis: Date.now() - w.__adaptiveWait.lastMutation,"
+            + "  pending: w.__adaptiveWait.pending,"
+            + "  angularStable: angularStable,"
+            + "  ready: document.readyState === 'complete'"
+            + "};";
+
+    private final WebDriver driver;
+
+    /**
+     * @param driver El controlador WebDriver sobre el que se evalúan las condiciones.
+     */
+    public AdaptiveWait(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Espera hasta que la condición devuelva un valor no nulo y distinto de {@code false}.
+     *
+     * @param name      Nombre de la condición (se usa para las métricas).
+     * @param timeout   Tiempo máximo de espera para esta condición.
+     * @param condition Condición a evaluar en cada sondeo.
+     * @param <T>       Tipo del valor devuelto por la condición.
+     * @return El valor devuelto por la condición cuando se cumple.
+     * @throws TimeoutException     Si la condición no se cumple dentro del tiempo indicado.
+     * @throws InterruptedException Si el hilo se interrumpe durante la espera.
+     */
+    public <T> T until(String name, Duration timeout, Function<WebDriver, T> condition) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long poll = INITIAL_POLL.toMillis();
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    WaitMetrics.record(name, System.nanoTime() - start, true);
+                    return value;
+                }
+            } catch (WebDriverException e) {
+                lastError = e; // El elemento puede no existir todavía o estar obsoleto; se reintenta
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                WaitMetrics.record(name, System.nanoTime() - start, false);
+                throw new TimeoutException("Condición '" + name + "' no cumplida en " + timeout.toMillis() + " ms", lastError);
+            }
+            Thread.sleep(Math.min(poll, Duration.ofNanos(remaining).toMillis() + 1));
+            poll = Math.min((long) (poll * BACKOFF), MAX_POLL.toMillis());
+        }
+    }
+
+    /**
+     * Espera a que la UI esté estable: documento cargado, sin peticiones de red en curso,
+     * Angular estable (si la página usa Angular) y sin mutaciones del DOM durante una breve ventana.
+     * A diferencia de {@link #until}, no lanza excepción al agotar el tiempo: la espera es de mejor esfuerzo
+     * y la prueba continúa, quedando el timeout registrado en {@link WaitMetrics} (condición "uiSettled").
+     *
+     * @param timeout Tiempo máximo de espera. Conviene que sea corto: hay páginas que nunca quedan quietas.
+     * @return true si la UI se estabilizó dentro del tiempo indicado.
+     * @throws InterruptedException Si el hilo se interrumpe durante la espera.
+     */
+    public boolean untilUiSettled(Duration timeout) throws InterruptedException {
+        try {
+            until("uiSettled", timeout, d -> isSettled(uiState(d)));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> uiState(WebDriver driver) {
+        return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(UI_STATE_SCRIPT);
+    }
+
+    private static boolean isSettled(Map<String, Object> state) {
+        if (state == null) {
+            return false;
+        }
+        long quiet = ((Number) state.get("quietMillis")).longValue();
+        long pending = ((Number) state.get("pending")).longValue();
+        return Boolean.TRUE.equals(state.get("ready"))
+                && pending <= 0
+                && !Boolean.FALSE.equals(state.get("angularStable"))
+                && quiet >= DOM_QUIET_MILLIS;
+    }
+}
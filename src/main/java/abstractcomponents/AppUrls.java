@@ -0,0 +1,44 @@
+package abstractcomponents;
+
+/**
+ * URLs de las aplicaciones bajo prueba.
+ * Por defecto apuntan a los sitios reales; se pueden redirigir (por ejemplo al servidor de fixtures local)
+ * con las propiedades del sistema {@code app.baseUrl} y {@code solotodo.url}.
+ */
+public final class AppUrls {
+
+    private static final String DEFAULT_BASE_URL = "https://rahulshettyacademy.com";
+    private static final String DEFAULT_SOLOTODO_URL = "https://www.solotodo.cl/";
+
+    private AppUrls() {
+    }
+
+    /**
+     * @return Origen de la aplicación de comercio electrónico, sin barra final.
+     */
+    public static String baseUrl() {
+        String url = System.getProperty("app.baseUrl", DEFAULT_BASE_URL);
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * @return URL de la página de login de la aplicación de comercio electrónico.
+     */
+    public static String landing() {
+        return baseUrl() + "/client";
+    }
+
+    /**
+     * @return URL base del API REST de la aplicación de comercio electrónico.
+     */
+    public static String api() {
+        return baseUrl() + "/api/ecom";
+    }
+
+    /**
+     * @return URL de la página principal de solotodo.
+     */
+    public static String solotodo() {
+        return System.getProperty("solotodo.url", DEFAULT_SOLOTODO_URL);
+    }
+}
@@ -0,0 +1,195 @@
+package abstractcomponents;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fábrica de localizadores para PageFactory que guarda en caché los elementos ya encontrados.
+ * <p>
+ * Se crea una fábrica por instancia de page object: la primera vez que se usa un campo {@code @FindBy} se hace el
+ * {@code findElement} y las siguientes llamadas reutilizan el mismo elemento, sin otra ida y vuelta al driver.
+ * Si el elemento queda obsoleto ({@link StaleElementReferenceException}, por ejemplo tras un re-render) se vuelve
+ * a localizar y se repite la llamada una vez. {@link #invalidate()} vacía la caché tras una navegación.
+ * <p>
+ * Las listas ({@code List<WebElement>}) no se guardan en caché porque su contenido cambia al cargarse la página
+ * y la obsolescencia de un elemento de la lista no se puede detectar desde el proxy.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingElementLocatorFactory.class);
+
+    // Contadores globales de búsquedas realizadas y ahorradas
+    private static final LongAdder FIND_CALLS = new LongAdder();
+    private static final LongAdder FIND_CALLS_SAVED = new LongAdder();
+    private static final LongAdder STALE_RECOVERIES = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (FIND_CALLS.sum() > 0) {
+                log.info("Caché de elementos: findElement={}, ahorrados={}, recuperados de stale={}",
+                        getFindCalls(), getFindCallsSaved(), getStaleRecoveries());
+            }
+        }, "element-cache-summary"));
+    }
+
+    private final SearchContext searchContext;
+    private final List<CachingElementLocator> locators = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param searchContext Contexto de búsqueda (normalmente el WebDriver).
+     */
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        CachingElementLocator locator = new CachingElementLocator(new DefaultElementLocator(searchContext, field));
+        locators.add(locator);
+        return locator;
+    }
+
+    /**
+     * @return Un decorador de campos que usa esta fábrica y recupera los elementos obsoletos.
+     */
+    public FieldDecorator decorator() {
+        return new StaleRecoveringFieldDecorator(this);
+    }
+
+    /**
+     * Vacía la caché de todos los elementos de la página.
+     */
+    public void invalidate() {
+        locators.forEach(CachingElementLocator::invalidate);
+    }
+
+    public static long getFindCalls() {
+        return FIND_CALLS.sum();
+    }
+
+    public static long getFindCallsSaved() {
+        return FIND_CALLS_SAVED.sum();
+    }
+
+    public static long getStaleRecoveries() {
+        return STALE_RECOVERIES.sum();
+    }
+
+    /**
+     * Localizador que recuerda el último elemento encontrado.
+     */
+    static final class CachingElementLocator implements ElementLocator {
+
+        private final ElementLocator delegate;
+        private volatile WebElement cached;
+
+        CachingElementLocator(ElementLocator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WebElement findElement() {
+            WebElement element = cached;
+            if (element != null) {
+                FIND_CALLS_SAVED.increment();
+                return element;
+            }
+            FIND_CALLS.increment();
+            element = delegate.findElement();
+            cached = element;
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            FIND_CALLS.increment();
+            return delegate.findElements();
+        }
+
+        void invalidate() {
+            cached = null;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    /**
+     * Decorador que crea los proxies de elementos individuales con {@link StaleRecoveringHandler}.
+     */
+    private static final class StaleRecoveringFieldDecorator extends DefaultFieldDecorator {
+
+        StaleRecoveringFieldDecorator(ElementLocatorFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            return (WebElement) Proxy.newProxyInstance(loader,
+                    new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                    new StaleRecoveringHandler(locator));
+        }
+    }
+
+    /**
+     * Resuelve el elemento a través del localizador y, si está obsoleto, invalida la caché y reintenta una vez.
+     */
+    private static final class StaleRecoveringHandler implements InvocationHandler {
+
+        private final ElementLocator locator;
+
+        StaleRecoveringHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+                return "Proxy element for: " + locator;
+            }
+            try {
+                return call(method, args);
+            } catch (StaleElementReferenceException e) {
+                if (!(locator instanceof CachingElementLocator)) {
+                    throw e;
+                }
+                STALE_RECOVERIES.increment();
+                ((CachingElementLocator) locator).invalidate();
+                return call(method, args);
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            WebElement element = locator.findElement();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package abstractcomponents;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Registro del WebDriver asociado al hilo actual.
+ * Cada hilo de prueba publica aquí su sesión para que la clase base de pruebas, los page objects y los
+ * listeners de TestNG resuelvan siempre el navegador del propio hilo, sin compartir campos entre hilos.
+ */
+public final class DriverContext {
+
+    private static final ThreadLocal<WebDriver> CURRENT = new ThreadLocal<>();
+
+    private DriverContext() {
+    }
+
+    /**
+     * Asocia un WebDriver al hilo actual.
+     *
+     * @param driver El controlador WebDriver del hilo actual.
+     */
+    public static void setDriver(WebDriver driver) {
+        if (driver == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(driver);
+        }
+    }
+
+    /**
+     * @return El WebDriver del hilo actual, o null si el hilo no tiene ninguno.
+     */
+    public static WebDriver getDriver() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return El WebDriver del hilo actual.
+     * @throws IllegalStateException Si el hilo actual no tiene un WebDriver asociado.
+     */
+    public static WebDriver requireDriver() {
+        WebDriver driver = CURRENT.get();
+        if (driver == null) {
+            throw new IllegalStateException("No hay un WebDriver asociado al hilo " + Thread.currentThread().getName());
+        }
+        return driver;
+    }
+
+    /**
+     * Elimina la asociación del hilo actual. Debe llamarse al terminar cada prueba para no
+     * retener la sesión en hilos reutilizados por el pool de TestNG.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,233 @@
+package abstractcomponents;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Consulta de varias lecturas independientes de la página (textos, visibilidad, número de elementos) resuelta en
+ * una sola llamada {@code executeScript}: una ida y vuelta al driver en lugar de un {@code findElement} y un
+ * {@code getText()}/{@code isDisplayed()} por elemento.
+ * <p>
+ * Se obtiene con {@link AbstractComponents#query()}, se le añaden lecturas con nombre y se ejecuta con
+ * {@link #run()} (una vez) o {@link #await()} (esperando a que todos los localizadores encuentren algún elemento).
+ * Los localizadores admitidos son {@code By.cssSelector}, {@code By.xpath}, {@code By.id}, {@code By.name},
+ * {@code By.className} y {@code By.tagName}; los de texto de enlace no.
+ */
+public final class PageQuery {
+
+    private static final String QUERY_SCRIPT =
+            "function find(q) {"
+            + "  if (q.using === 'xpath') {"
+            + "    var r = document.evaluate(q.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "    var nodes = [];"
+            + "    for (var i = 0; i < r.snapshotLength; i++) { nodes.push(r.snapshotItem(i)); }"
+            + "    return nodes;"
+            + "  }"
+            + "  var css = q.using === 'id' ? '#' + CSS.escape(q.value)"
+            + "      : q.using === 'name' ? '[name=\"' + CSS.escape(q.value) + '\"]'"
+            + "      : q.using === 'class name' ? '.' + CSS.escape(q.value)"
+            + "      : q.value;" // 'css selector' y 'tag name'
+            + "  return Array.prototype.slice.call(document.querySelectorAll(css));"
+            + "}"
+            + "function visible(e) {"
+            + "  if (e.checkVisibility) { return e.checkVisibility({ visibilityProperty: true, opacityProperty: true }); }"
+            + "  var s = window.getComputedStyle(e);"
+            + "  return e.getClientRects().length > 0 && s.visibility !== 'hidden' && s.opacity !== '0';"
+            + "}"
+            + "var values = {}, complete = true;"
+            + "arguments[0].forEach(function (q) {"
+            + "  var found = find(q);"
+            + "  if (!found.length && q.kind !== 'count') { complete = false; }"
+            + "  if (q.kind === 'texts') {"
+            + "    values[q.name] = found.map(function (e) {"
+            + "      var target = q.child ? e.querySelector(q.child) : e;"
+            + "      return target ? target.innerText.trim() : null;"
+            + "    });"
+            + "  } else if (q.kind === 'visible') {"
+            + "    values[q.name] = found.length > 0 && visible(found[0]);"
+            + "  } else {"
+            + "    values[q.name] = found.length;"
+            + "  }"
+            + "});"
+            + "return { complete: complete, values: values };";
+
+    private static final List<String> SUPPORTED_STRATEGIES =
+            Arrays.asList("css selector", "xpath", "id", "name", "class name", "tag name");
+
+    private final WebDriver driver;
+    private final AdaptiveWait adaptiveWait;
+    private final Duration timeout;
+    private final List<Map<String, Object>> reads = new ArrayList<>();
+
+    PageQuery(WebDriver driver, AdaptiveWait adaptiveWait, Duration timeout) {
+        this.driver = driver;
+        this.adaptiveWait = adaptiveWait;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Resultado combinado de una consulta.
+     */
+    public static final class Result {
+        private final Map<String, Object> values;
+        private final boolean complete;
+
+        private Result(Map<String, Object> values, boolean complete) {
+            this.values = values;
+            this.complete = complete;
+        }
+
+        /**
+         * @return Los textos de la lectura {@link #texts}, en orden de documento (vacía si no hubo elementos).
+         */
+        @SuppressWarnings("unchecked")
+        public List<String> getTexts(String name) {
+            Object texts = values.get(name);
+            return texts == null ? Collections.emptyList() : (List<String>) texts;
+        }
+
+        /**
+         * @return true si el primer elemento de la lectura {@link #visible} existe y es visible.
+         */
+        public boolean isVisible(String name) {
+            return Boolean.TRUE.equals(values.get(name));
+        }
+
+        /**
+         * @return El número de elementos de la lectura {@link #count}.
+         */
+        public int getCount(String name) {
+            Object count = values.get(name);
+            return count == null ? 0 : ((Number) count).intValue();
+        }
+
+        /**
+         * @return true si todos los localizadores (salvo los de {@link #count}) encontraron algún elemento.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    /**
+     * Lee el texto visible (innerText, como {@code getText()}) de todos los elementos del selector.
+     *
+     * @param name        Nombre de la lectura en el resultado.
+     * @param cssSelector Selector CSS de los elementos.
+     * @param childCss    Selector CSS de un hijo del que se lee el texto, o null para leer el del propio elemento.
+     * @return Esta misma consulta, para encadenar lecturas.
+     */
+    public PageQuery texts(String name, String cssSelector, String childCss) {
+        Map<String, Object> read = read("texts", name, By.cssSelector(cssSelector));
+        read.put("child", childCss);
+        return this;
+    }
+
+    /**
+     * Comprueba si el primer elemento del localizador es visible (equivalente a {@code isDisplayed()}).
+     *
+     * @param name    Nombre de la lectura en el resultado.
+     * @param locator Localizador (ver los admitidos en la descripción de la clase).
+     * @return Esta misma consulta, para encadenar lecturas.
+     */
+    public PageQuery visible(String name, By locator) {
+        read("visible", name, locator);
+        return this;
+    }
+
+    /**
+     * Cuenta los elementos del localizador. No cuenta para {@link Result#isComplete()}: cero es un resultado válido.
+     *
+     * @param name    Nombre de la lectura en el resultado.
+     * @param locator Localizador (ver los admitidos en la descripción de la clase).
+     * @return Esta misma consulta, para encadenar lecturas.
+     */
+    public PageQuery count(String name, By locator) {
+        read("count", name, locator);
+        return this;
+    }
+
+    /**
+     * Ejecuta todas las lecturas en una sola llamada, sin esperar.
+     *
+     * @return El resultado combinado.
+     */
+    @SuppressWarnings("unchecked")
+    public Result run() {
+        Map<String, Object> response = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(QUERY_SCRIPT, reads);
+        Map<String, Object> values = response == null ? null : (Map<String, Object>) response.get("values");
+        return new Result(values == null ? Collections.emptyMap() : values,
+                response != null && Boolean.TRUE.equals(response.get("complete")));
+    }
+
+    /**
+     * Repite la consulta (con el back-off del {@link AdaptiveWait}) hasta que todos los localizadores encuentran algún
+     * elemento, como haría la espera implícita de {@code findElement}, y devuelve el resultado. Si se agota el tiempo
+     * devuelve el último resultado obtenido, con {@link Result#isComplete()} a false.
+     *
+     * @return El resultado combinado.
+     */
+    public Result await() {
+        return awaitUntil(Result::isComplete);
+    }
+
+    /**
+     * Repite la consulta (con el back-off del {@link AdaptiveWait}) hasta que el resultado cumple la condición, y lo
+     * devuelve. Si se agota el tiempo devuelve el último resultado obtenido.
+     *
+     * @param done Condición sobre el resultado que da la espera por terminada.
+     * @return El resultado combinado.
+     */
+    public Result awaitUntil(Predicate<Result> done) {
+        Result[] last = {new Result(Collections.emptyMap(), false)};
+        try {
+            return adaptiveWait.until("query " + names(), timeout, d -> {
+                last[0] = run();
+                return done.test(last[0]) ? last[0] : null;
+            });
+        } catch (TimeoutException e) {
+            return last[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta interrumpida: " + names(), e);
+        }
+    }
+
+    private Map<String, Object> read(String kind, String name, By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Localizador no admitido en una consulta: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        Object value = parameters.value();
+        String using = parameters.using();
+        if (!SUPPORTED_STRATEGIES.contains(using)) {
+            throw new IllegalArgumentException("Localizador no admitido en una consulta: " + locator);
+        }
+        Map<String, Object> read = new HashMap<>();
+        read.put("kind", kind);
+        read.put("name", name);
+        read.put("using", using);
+        read.put("value", value);
+        reads.add(read);
+        return read;
+    }
+
+    private List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> read : reads) {
+            names.add((String) read.get("name"));
+        }
+        return names;
+    }
+}
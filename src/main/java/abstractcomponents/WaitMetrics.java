@@ -0,0 +1,109 @@
+package abstractcomponents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Registro global (thread-safe) de la duración real de cada espera.
+ * Agrupa por nombre de condición para poder ver cuáles dominan el tiempo de las pruebas.
+ * El resumen se escribe en el log al terminar la JVM.
+ */
+public final class WaitMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitMetrics.class);
+
+    private static final Map<String, Stat> STATS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!STATS.isEmpty()) {
+                log.info("Tiempos de espera por condición:\n{}", summary());
+            }
+        }, "wait-metrics-summary"));
+    }
+
+    private WaitMetrics() {
+    }
+
+    /**
+     * Estadísticas acumuladas de una condición de espera.
+     */
+    public static final class Stat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        public long getAverageMillis() {
+            long n = getCount();
+            return n == 0 ? 0 : getTotalMillis() / n;
+        }
+    }
+
+    /**
+     * Registra una espera terminada.
+     *
+     * @param condition Nombre de la condición esperada.
+     * @param nanos     Duración real de la espera en nanosegundos.
+     * @param satisfied false si la espera terminó por timeout.
+     */
+    public static void record(String condition, long nanos, boolean satisfied) {
+        Stat stat = STATS.computeIfAbsent(condition, k -> new Stat());
+        stat.count.increment();
+        stat.totalNanos.add(nanos);
+        stat.maxNanos.accumulate(nanos);
+        if (!satisfied) {
+            stat.timeouts.increment();
+        }
+    }
+
+    /**
+     * @return Una copia de las estadísticas actuales por condición.
+     */
+    public static Map<String, Stat> snapshot() {
+        return new ConcurrentHashMap<>(STATS);
+    }
+
+    /**
+     * @return Tabla de texto con las condiciones ordenadas por tiempo total descendente.
+     */
+    public static String summary() {
+        return STATS.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Stat> e) -> e.getValue().getTotalMillis()).reversed())
+                .map(e -> String.format("  %-45s count=%d total=%dms avg=%dms max=%dms timeouts=%d",
+                        e.getKey(), e.getValue().getCount(), e.getValue().getTotalMillis(),
+                        e.getValue().getAverageMillis(), e.getValue().getMaxMillis(), e.getValue().getTimeouts()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Limpia las estadísticas acumuladas.
+     */
+    public static void reset() {
+        STATS.clear();
+    }
+}
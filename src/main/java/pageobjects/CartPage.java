@@ -4,9 +4,6 @@ import abstractcomponents.AbstractComponents;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-
-import java.util.List;
 
 /**
  * Esta clase representa la página del carrito de compras en la aplicación web.
@@ -19,31 +16,30 @@ public class CartPage extends AbstractComponents {
 
     /**
      * Constructor de la clase CartPage.
-     * Inicializa el WebDriver y la clase base. También inicializa los elementos de la página utilizando la clase {@link AbstractComponents}.
+     * Inicializa el WebDriver y la clase base. Los elementos de la página los inicializa la clase {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public CartPage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver; // Asigna el WebDriver desde la prueba
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
     }
 
     // Elementos de la página mapeados con la anotación @FindBy
     @FindBy(css = ".totalRow Button")
     private WebElement checkoutEle; // Botón para ir a la página de checkout
-    @FindBy(css = ".cartSection h3")
-    private List<WebElement> productTitles; // Lista de títulos de los productos en el carrito
+    private static final String PRODUCT_TITLES_CSS = ".cartSection h3"; // Títulos de los productos en el carrito
 
     /**
      * Verifica si un producto está presente en el carrito.
      * Este metodo busca un producto en la lista de productos del carrito comparando su nombre.
+     * Los títulos se leen todos en una sola llamada JavaScript en lugar de un {@code getText()} por producto.
      *
      * @param productName El nombre del producto que se desea verificar.
      * @return true si el producto está presente en el carrito, false en caso contrario.
      */
     public boolean VerifyProductsDisplay(String productName) {
-        return productTitles.stream().anyMatch(product -> product.getText().equalsIgnoreCase(productName)); // Busca el producto por nombre
+        return readTexts(PRODUCT_TITLES_CSS, null).stream().anyMatch(title -> title.equalsIgnoreCase(productName)); // Busca el producto por nombre
     }
 
     /**
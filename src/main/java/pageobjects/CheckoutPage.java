@@ -6,7 +6,6 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 
 /**
@@ -20,14 +19,13 @@ public class CheckoutPage extends AbstractComponents {
 
     /**
      * Constructor de la clase CheckoutPage.
-     * Inicializa el WebDriver y la clase base. También inicializa los elementos de la página utilizando la clase {@link PageFactory}.
+     * Inicializa el WebDriver y la clase base. Los elementos de la página los inicializa la clase base {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public CheckoutPage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver; // Asigna el WebDriver desde la prueba
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
     }
 
     // Elementos de la página mapeados con la anotación @FindBy
@@ -51,8 +49,7 @@ public class CheckoutPage extends AbstractComponents {
         a.sendKeys(country, countryName).build().perform(); // Escribe el nombre del país en el campo de búsqueda
 
         waitForElementToAppear(results); // Espera a que aparezcan los resultados de la búsqueda
-        Thread.sleep(1000); // Pausa para permitir que los resultados se carguen
-        boolean xd = selectCountry.isDisplayed(); // Verifica si el botón de selección de país está visible
+        waitForUiToSettle(); // Espera a que la lista de resultados termine de renderizarse
         selectCountry.click(); // Haz clic en el botón para seleccionar el país
     }
 
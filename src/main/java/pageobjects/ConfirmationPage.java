@@ -4,7 +4,6 @@ import abstractcomponents.AbstractComponents;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 /**
  * Esta clase representa la página de confirmación en una aplicación web.
@@ -18,14 +17,13 @@ public class ConfirmationPage extends AbstractComponents {
     /**
      * Constructor de la clase ConfirmationPage.
      * Inicializa el controlador WebDriver y la clase base.
-     * Además, inicializa los elementos de la página utilizando la clase {@link PageFactory}.
+     * Los elementos de la página los inicializa la clase base {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public ConfirmationPage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver; // Asigna el WebDriver desde la prueba
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
     }
 
     // Elemento de la página mapeado con la anotación @FindBy
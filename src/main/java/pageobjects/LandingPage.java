@@ -2,10 +2,11 @@ package pageobjects;
 
 
 import abstractcomponents.AbstractComponents;
+import abstractcomponents.AppUrls;
+import abstractcomponents.DriverContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 /**
  * Esta clase representa la página de aterrizaje (Landing Page) en una aplicación web.
@@ -18,14 +19,20 @@ public class LandingPage extends AbstractComponents {
     /**
      * Constructor de la clase LandingPage.
      * Inicializa el controlador WebDriver y la clase base.
-     * Además, inicializa los elementos de la página utilizando la clase {@link PageFactory}.
+     * Los elementos de la página los inicializa la clase base {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public LandingPage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver; // Asigna el WebDriver desde la prueba
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
+    }
+
+    /**
+     * Constructor que utiliza el WebDriver asociado al hilo actual en {@link DriverContext}.
+     */
+    public LandingPage() {
+        this(DriverContext.requireDriver());
     }
 
     // Elementos de la página mapeados con la anotación @FindBy
@@ -70,9 +77,10 @@ public class LandingPage extends AbstractComponents {
     /**
      * Navega a la página de aterrizaje de la aplicación.
      * <p>
-     * Este metodo abre la URL de la página de aterrizaje de la aplicación.
+     * Este metodo abre la URL de la página de aterrizaje de la aplicación ({@link AppUrls#landing()}).
      */
     public void goTo() {
-        driver.get("https://rahulshettyacademy.com/client"); // Navega a la página de aterrizaje
+        driver.get(AppUrls.landing()); // Navega a la página de aterrizaje
+        invalidateElementCache(); // Los elementos de la página anterior ya no son válidos
     }
 }
\ No newline at end of file
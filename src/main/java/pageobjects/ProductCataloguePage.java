@@ -6,9 +6,10 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Esta clase representa la página del catálogo de productos en una aplicación de comercio electrónico.
@@ -21,14 +22,13 @@ public class ProductCataloguePage extends AbstractComponents {
 
     /**
      * Constructor de la clase ProductCataloguePage.
-     * Inicializa el controlador WebDriver y los elementos de la página utilizando PageFactory.
+     * Inicializa el controlador WebDriver; los elementos de la página los inicializa la clase base {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public ProductCataloguePage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver;
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
     }
 
     // Elementos de la página mapeados con la anotación @FindBy
@@ -37,8 +37,12 @@ public class ProductCataloguePage extends AbstractComponents {
     @FindBy(css = ".ng-animating")
     private WebElement spinner; // Indicador de carga
 
+    // Nombre del producto -> posición en el catálogo, válido mientras viva esta página
+    private Map<String, Integer> productIndex;
+
     // Selectores de los elementos, definidos con By
-    private final By productsBy = By.cssSelector(".mb-3");
+    private static final String PRODUCTS_CSS = ".mb-3";
+    private final By productsBy = By.cssSelector(PRODUCTS_CSS);
     private final By addToCart = By.cssSelector(".card-body button:last-of-type");
     private final By toastMessage = By.cssSelector("#toast-container");
 
@@ -57,18 +61,39 @@ public class ProductCataloguePage extends AbstractComponents {
     /**
      * Busca un producto por su nombre en la lista de productos.
      * <p>
-     * Este metodo recorre la lista de productos y devuelve el WebElement correspondiente al producto
-     * cuyo nombre coincide con el nombre proporcionado.
+     * En lugar de leer el nombre de cada tarjeta con un {@code findElement} y un {@code getText} por producto,
+     * obtiene todos los nombres en una sola llamada JavaScript y construye un mapa nombre → posición que se
+     * reutiliza mientras viva esta página. Solo después se obtiene el elemento del producto encontrado.
      *
      * @param productName El nombre del producto que se busca.
      * @return El WebElement del producto si se encuentra, o null si no se encuentra.
      */
     public WebElement getProductByName(String productName) {
-        // Filtra la lista de productos y busca el que tenga el nombre coincidente
-        return getProductList().stream()
-                .filter(product -> product.findElement(By.cssSelector("b")).getText().equals(productName))
-                .findFirst()
-                .orElse(null); // Devuelve el primer producto coincidente o null si no se encuentra
+        Integer index = getProductIndex().get(productName);
+        if (index == null) {
+            productIndex = null; // El catálogo pudo cambiar; se vuelve a leer una vez
+            index = getProductIndex().get(productName);
+        }
+        return index == null ? null : elementAt(PRODUCTS_CSS, index); // Devuelve el producto coincidente o null si no se encuentra
+    }
+
+    /**
+     * Obtiene el mapa nombre → posición de los productos, leyéndolo del navegador la primera vez.
+     *
+     * @return El mapa de productos de la página.
+     */
+    private Map<String, Integer> getProductIndex() {
+        if (productIndex == null) {
+            List<String> names = readTexts(PRODUCTS_CSS, "b"); // Todos los nombres en una sola llamada
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i) != null) {
+                    index.putIfAbsent(names.get(i), i); // Se conserva el primer producto con ese nombre
+                }
+            }
+            productIndex = index;
+        }
+        return productIndex;
     }
 
     /**
@@ -84,7 +109,7 @@ public class ProductCataloguePage extends AbstractComponents {
         WebElement prod = getProductByName(productName); // Busca el producto por nombre
         prod.findElement(addToCart).click(); // Hace clic en el botón "Añadir al carrito"
         waitForElementToAppear(toastMessage); // Espera a que aparezca el mensaje emergente
-        Thread.sleep(2000);
+        waitForUiToSettle(); // Espera a que el carrito termine de actualizarse
     }
 }
 
@@ -1,13 +1,16 @@
 package pageobjects;
 
 import abstractcomponents.AbstractComponents;
+import abstractcomponents.AppUrls;
+import abstractcomponents.DriverContext;
+import abstractcomponents.PageQuery;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 
 public class SolotodoPage extends AbstractComponents{
 
@@ -16,46 +19,87 @@ public class SolotodoPage extends AbstractComponents{
 
     /**
      * Constructor de la clase CartPage.
-     * Inicializa el WebDriver y la clase base. También inicializa los elementos de la página utilizando la clase {@link AbstractComponents}.
+     * Inicializa el WebDriver y la clase base. Los elementos de la página los inicializa la clase {@link AbstractComponents}.
      *
      * @param driver El controlador WebDriver utilizado para interactuar con la página.
      */
     public SolotodoPage(WebDriver driver) {
         super(driver); // Llama al constructor de la clase base
         this.driver = driver; // Asigna el WebDriver desde la prueba
-        PageFactory.initElements(driver, this); // Inicializa los elementos de la página
     }
 
-    // Elementos de la página mapeados con la anotación @FindBy
-    @FindBy(xpath = "//button[contains(text(),'Tecnología')]")
-    private WebElement headerTecnologiabtn;
-    @FindBy(xpath = "//button[contains(text(),'Hardware')]")
-    private WebElement headerHardwarebtn;
-    @FindBy(xpath = "//button[contains(text(),'Electro')]")
-    private WebElement headerElectrobtn;
-    @FindBy(xpath = "//button[contains(text(),'Periféricos')]")
-    private WebElement headerPerifericosbtn;
-    @FindBy(css = ".MuiButton-textSecondary")
-    WebElement headerPerfilBtn;
-    @FindBy(xpath = "(//button[contains(@class, 'MuiButtonBase-root') and contains(@class, 'MuiIconButton-root')])[2]")
-    WebElement headerConfigButton;
+    /**
+     * Constructor que utiliza el WebDriver asociado al hilo actual en {@link DriverContext}.
+     */
+    public SolotodoPage() {
+        this(DriverContext.requireDriver());
+    }
+
+    // Elementos principales del encabezado, por el nombre con el que los piden los escenarios
+    private static final Map<String, By> HEADER_ELEMENTS = headerElements();
 
+    // Última lectura del encabezado de la página actual; null tras cargar la página
+    private Map<String, Boolean> headerVisibility;
+
+    private static Map<String, By> headerElements() {
+        Map<String, By> elements = new LinkedHashMap<>();
+        elements.put("Tecnologia", By.xpath("//button[contains(text(),'Tecnología')]"));
+        elements.put("Electro", By.xpath("//button[contains(text(),'Electro')]"));
+        elements.put("Hardware", By.xpath("//button[contains(text(),'Hardware')]"));
+        elements.put("Perifericos", By.xpath("//button[contains(text(),'Periféricos')]"));
+        elements.put("boton de perfil", By.cssSelector(".MuiButton-textSecondary"));
+        elements.put("boton de configuracion",
+                By.xpath("(//button[contains(@class, 'MuiButtonBase-root') and contains(@class, 'MuiIconButton-root')])[2]"));
+        return Collections.unmodifiableMap(elements);
+    }
 
     public void goTo() {
-        driver.get("https://www.solotodo.cl/");
+        driver.get(AppUrls.solotodo());
+        invalidateElementCache(); // Los elementos de la página anterior ya no son válidos
+        headerVisibility = null;
     }
 
+    /**
+     * Comprueba si un elemento principal del encabezado está visible, a partir de la lectura de todo el encabezado
+     * de {@link #getHeaderVisibility()} (una sola llamada {@code executeScript} por página). Si esa lectura no lo vio,
+     * espera (como la espera implícita de {@code findElement}) solo a ese elemento: si falta, no retrasa la
+     * comprobación de los demás.
+     *
+     * @param elementName Nombre del elemento (por ejemplo "Tecnologia" o "boton de perfil").
+     * @return true si el elemento es conocido y está visible.
+     */
     public boolean searchMainElementsInHeader(String elementName) {
-        // Mapeamos los nombres de los elementos con sus respectivos WebElements
-        Map<String, WebElement> elementsMap = Map.of(
-                "Tecnologia", headerTecnologiabtn,
-                "Electro", headerElectrobtn,
-                "Hardware", headerHardwarebtn,
-                "Perifericos", headerPerifericosbtn,
-                "boton de perfil", headerPerfilBtn,
-                "boton de configuracion", headerConfigButton
-        );
-        // Verificamos si el elemento existe en el mapa y está visible
-        return elementsMap.containsKey(elementName) && elementsMap.get(elementName).isDisplayed();
+        if (!HEADER_ELEMENTS.containsKey(elementName)) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(getHeaderVisibility().get(elementName))) {
+            return true;
+        }
+        return readHeader(result -> result.isVisible(elementName)).get(elementName);
+    }
+
+    /**
+     * Lee la visibilidad de todos los elementos principales del encabezado en una sola llamada {@code executeScript}
+     * (en lugar de un {@code findElement} y un {@code isDisplayed()} por elemento), esperando a que el encabezado
+     * se haya dibujado (algún elemento visible). La lectura se reutiliza hasta que se vuelve a cargar la página.
+     *
+     * @return La visibilidad de cada elemento, por nombre.
+     */
+    public Map<String, Boolean> getHeaderVisibility() {
+        Map<String, Boolean> visibility = headerVisibility;
+        if (visibility == null) {
+            visibility = readHeader(result -> HEADER_ELEMENTS.keySet().stream().anyMatch(result::isVisible));
+        }
+        return visibility;
+    }
+
+    private Map<String, Boolean> readHeader(Predicate<PageQuery.Result> done) {
+        PageQuery query = query();
+        HEADER_ELEMENTS.forEach(query::visible);
+        PageQuery.Result result = query.awaitUntil(done);
+        Map<String, Boolean> visibility = new LinkedHashMap<>();
+        HEADER_ELEMENTS.keySet().forEach(name -> visibility.put(name, result.isVisible(name)));
+        headerVisibility = Collections.unmodifiableMap(visibility);
+        return headerVisibility;
     }
 }
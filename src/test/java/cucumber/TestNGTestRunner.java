@@ -2,6 +2,9 @@ package cucumber;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Listeners;
+import testcomponents.ShardInterceptor;
 
 @CucumberOptions(
     features = "src/test/java/cucumber",
@@ -11,5 +14,17 @@ import io.cucumber.testng.CucumberOptions;
     plugin = {"html:target/cucumber.html",
     }
 )
+@Listeners(testcomponents.Listeners.class)
 public class TestNGTestRunner extends AbstractTestNGCucumberTests {
+
+    /**
+     * Escenarios a ejecutar; con {@code -Dshard=i/n} solo los de esta partición.
+     * Se ejecutan en paralelo (cada uno con su navegador, ver stepdefinitions.ScenarioContext), con tantos hilos
+     * como indique el data-provider-thread-count (en el perfil CucumberTest, el tamaño del DriverPool).
+     */
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return ShardInterceptor.selectScenarios(super.scenarios());
+    }
 }
@@ -0,0 +1,199 @@
+package data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Almacén compartido de datos de prueba.
+ * <p>
+ * Cada archivo JSON se lee una sola vez por JVM con el parser en streaming de Jackson (sin cargar el archivo
+ * completo en un String) y se guarda en caché junto con su fecha de modificación y tamaño; si el archivo cambia,
+ * se vuelve a leer en el siguiente acceso. Las filas se entregan de forma perezosa: cada fila se copia o se
+ * convierte al tipo pedido solo cuando el DataProvider la solicita.
+ * <p>
+ * El archivo debe contener un array de objetos; los valores escalares se guardan como texto y los valores
+ * anidados como su JSON.
+ */
+public final class TestDataStore {
+
+    // ObjectMapper es thread-safe una vez configurado, por lo que se comparte
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+
+    private TestDataStore() {
+    }
+
+    /**
+     * Contenido ya leído de un archivo, junto con los datos para detectar si cambió.
+     */
+    private static final class Entry {
+        private final long lastModified;
+        private final long length;
+        private final List<HashMap<String, String>> rows;
+
+        private Entry(long lastModified, long length, List<HashMap<String, String>> rows) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.rows = rows;
+        }
+
+        private boolean isCurrent(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
+    /**
+     * Devuelve las filas cacheadas del archivo indicado. Se comparten entre hilos, por lo que nunca se
+     * entregan directamente a las pruebas: los métodos públicos devuelven copias.
+     *
+     * @param filePath Ruta del archivo JSON.
+     * @return Las filas del archivo.
+     * @throws IOException Si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    private static List<HashMap<String, String>> rows(String filePath) throws IOException {
+        File file = new File(filePath).getCanonicalFile();
+        String key = file.getPath();
+        try {
+            return CACHE.compute(key, (k, cached) -> {
+                if (cached != null && cached.isCurrent(file)) {
+                    return cached;
+                }
+                try {
+                    long lastModified = file.lastModified();
+                    long length = file.length();
+                    return new Entry(lastModified, length, parse(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Devuelve una copia modificable de las filas, compatible con {@link DataReader#getJsonDataToMap(String)}.
+     *
+     * @param filePath Ruta del archivo JSON.
+     * @return Una lista nueva con una copia de cada fila.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static List<HashMap<String, String>> copies(String filePath) throws IOException {
+        List<HashMap<String, String>> rows = rows(filePath);
+        List<HashMap<String, String>> copies = new ArrayList<>(rows.size());
+        for (HashMap<String, String> row : rows) {
+            copies.add(new HashMap<>(row));
+        }
+        return copies;
+    }
+
+    /**
+     * Filas listas para un {@code @DataProvider}: cada elemento es {@code {HashMap<String, String>}}
+     * y se copia solo cuando TestNG lo pide.
+     *
+     * @param filePath Ruta del archivo JSON.
+     * @return Un iterador perezoso sobre las filas.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static Iterator<Object[]> parameters(String filePath) throws IOException {
+        return lazy(rows(filePath), row -> new Object[]{new HashMap<>(row)});
+    }
+
+    /**
+     * Filas convertidas al tipo indicado (por ejemplo un POJO con los mismos campos que el JSON).
+     * La conversión de cada fila se hace solo cuando se solicita.
+     *
+     * @param filePath Ruta del archivo JSON.
+     * @param type     Tipo al que se convierte cada fila.
+     * @param <T>      Tipo de las filas.
+     * @return Un iterador perezoso sobre las filas convertidas.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static <T> Iterator<T> typedRows(String filePath, Class<T> type) throws IOException {
+        return lazy(rows(filePath), row -> MAPPER.convertValue(row, type));
+    }
+
+    /**
+     * @param filePath Ruta del archivo JSON.
+     * @return El número de filas del archivo.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static int size(String filePath) throws IOException {
+        return rows(filePath).size();
+    }
+
+    /**
+     * Elimina todos los archivos de la caché.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static <T> Iterator<T> lazy(List<HashMap<String, String>> rows, Function<HashMap<String, String>, T> mapper) {
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < rows.size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapper.apply(rows.get(index++));
+            }
+        };
+    }
+
+    /**
+     * Lee el archivo en streaming, objeto a objeto, sin construir un árbol intermedio del documento completo.
+     */
+    private static List<HashMap<String, String>> parse(File file) throws IOException {
+        List<HashMap<String, String>> rows = new ArrayList<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Se esperaba un array JSON en " + file);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                HashMap<String, String> row = new HashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        row.put(field, MAPPER.readTree(parser).toString());
+                    } else if (value == JsonToken.VALUE_NULL) {
+                        row.put(field, null);
+                    } else {
+                        row.put(field, parser.getValueAsString());
+                    }
+                }
+                rows.add(row);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                // Un elemento que no es un objeto: no se descarta en silencio el resto de filas
+                throw new IOException("Se esperaba un objeto JSON en la fila " + (rows.size() + 1) + " de " + file
+                        + " y se encontró " + token);
+            }
+        }
+        return Collections.unmodifiableList(rows);
+    }
+}
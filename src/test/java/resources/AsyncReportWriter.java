@@ -0,0 +1,244 @@
+package resources;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Escritor asíncrono del reporte de ExtentReports compartido por toda la JVM.
+ * <p>
+ * Los hilos de prueba solo encolan eventos (crear test, registrar estado, adjuntar captura) en una cola
+ * sin bloqueos; un único hilo en segundo plano los aplica por lotes y guarda el HTML de forma incremental
+ * cada cierto intervalo ({@code -Dreport.flushIntervalMillis}, por defecto 2000 ms).
+ * Como ExtentReports solo se toca desde ese hilo, no hace falta sincronizar su acceso.
+ */
+public final class AsyncReportWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncReportWriter.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FLUSH_INTERVAL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("report.flushIntervalMillis", 2000));
+
+    private static final AsyncReportWriter INSTANCE = new AsyncReportWriter(ExtentReporterNG.getReportObject());
+
+    private final ExtentReports extent;
+    private final ConcurrentLinkedQueue<Consumer<Map<Long, ExtentTest>>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextTestId = new AtomicLong();
+    private final Thread writer;
+
+    // Solicitudes de guardado: el escritor guarda cuando flushedSeq alcanza requestedSeq
+    private final AtomicLong requestedSeq = new AtomicLong();
+    private volatile long flushedSeq;
+
+    // Métricas
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Long::max, 0);
+    private final LongAdder eventsWritten = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private volatile long lastFlushNanos;
+
+    private AsyncReportWriter(ExtentReports extent) {
+        this.extent = extent;
+        this.writer = new Thread(this::run, "extent-report-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flushAndWait(Duration.ofSeconds(30));
+            log.info("AsyncReportWriter: {}", this);
+        }, "extent-report-shutdown"));
+    }
+
+    /**
+     * @return El escritor compartido por toda la JVM.
+     */
+    public static AsyncReportWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registra un nuevo test en el reporte.
+     *
+     * @param name Nombre del test.
+     * @return Identificador del test, a usar en el resto de eventos.
+     */
+    public long startTest(String name) {
+        long id = nextTestId.incrementAndGet();
+        enqueue(tests -> tests.put(id, extent.createTest(name)));
+        return id;
+    }
+
+    /**
+     * Registra un mensaje con su estado en un test.
+     */
+    public void log(long testId, Status status, String details) {
+        enqueue(tests -> withTest(tests, testId, t -> t.log(status, details)));
+    }
+
+    /**
+     * Marca un test como fallido con la excepción que lo provocó.
+     */
+    public void fail(long testId, Throwable throwable) {
+        enqueue(tests -> withTest(tests, testId, t -> t.fail(throwable)));
+    }
+
+    /**
+     * Adjunta una captura de pantalla ya guardada en disco a un test.
+     */
+    public void addScreenCapture(long testId, String path, String title) {
+        enqueue(tests -> withTest(tests, testId, t -> t.addScreenCaptureFromPath(path, title)));
+    }
+
+    /**
+     * Ejecuta una acción arbitraria sobre el objeto ExtentReports desde el hilo escritor.
+     */
+    public void submit(Consumer<ExtentReports> action) {
+        enqueue(tests -> action.accept(extent));
+    }
+
+    /**
+     * Pide un guardado del reporte sin bloquear al hilo que llama.
+     */
+    public void requestFlush() {
+        requestedSeq.incrementAndGet();
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Pide un guardado y espera a que se hayan escrito todos los eventos encolados hasta este momento.
+     * Se usa al terminar la suite, nunca desde los hilos de prueba.
+     *
+     * @param timeout Tiempo máximo de espera.
+     * @return true si el guardado terminó dentro del tiempo indicado.
+     */
+    public boolean flushAndWait(Duration timeout) {
+        long target = requestedSeq.incrementAndGet();
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (flushedSeq < target) {
+            if (System.nanoTime() > deadline || !writer.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return true;
+    }
+
+    private void enqueue(Consumer<Map<Long, ExtentTest>> event) {
+        queue.offer(event);
+        maxQueueDepth.accumulate(queueDepth.incrementAndGet());
+    }
+
+    private static void withTest(Map<Long, ExtentTest> tests, long testId, Consumer<ExtentTest> action) {
+        ExtentTest test = tests.get(testId);
+        if (test != null) {
+            action.accept(test);
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: aplica eventos por lotes y guarda el reporte cuando hay cambios
+     * y ha pasado el intervalo, o cuando alguien lo ha pedido explícitamente.
+     */
+    private void run() {
+        Map<Long, ExtentTest> tests = new HashMap<>();
+        boolean dirty = false;
+        long lastFlush = System.nanoTime();
+
+        while (true) {
+            int applied = 0;
+            Consumer<Map<Long, ExtentTest>> event;
+            while (applied < BATCH_SIZE && (event = queue.poll()) != null) {
+                queueDepth.decrementAndGet();
+                try {
+                    event.accept(tests);
+                } catch (RuntimeException e) {
+                    log.warn("Evento de reporte descartado: {}", e.getMessage());
+                }
+                applied++;
+            }
+            if (applied > 0) {
+                eventsWritten.add(applied);
+                dirty = true;
+            }
+
+            long requested = requestedSeq.get();
+            boolean flushRequested = requested > flushedSeq && queue.isEmpty();
+            boolean intervalElapsed = dirty && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS;
+            if (flushRequested || intervalElapsed) {
+                flush();
+                dirty = false;
+                lastFlush = System.nanoTime();
+                if (flushRequested) {
+                    flushedSeq = requested;
+                }
+            }
+
+            if (applied == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void flush() {
+        long start = System.nanoTime();
+        try {
+            extent.flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el reporte: {}", e.getMessage());
+        }
+        lastFlushNanos = System.nanoTime() - start;
+        flushNanos.add(lastFlushNanos);
+        flushCount.increment();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getEventsWritten() {
+        return eventsWritten.sum();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getLastFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushNanos);
+    }
+
+    public long getTotalFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(flushNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "events=" + getEventsWritten()
+                + ", queueDepth=" + getQueueDepth()
+                + ", maxQueueDepth=" + getMaxQueueDepth()
+                + ", flushes=" + getFlushCount()
+                + ", lastFlushMs=" + getLastFlushMillis()
+                + ", totalFlushMs=" + getTotalFlushMillis();
+    }
+}
@@ -2,7 +2,11 @@ package resources;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import testcomponents.BaseTest;
+import testcomponents.ShardInterceptor;
+
+import java.io.File;
 
 /**
  * Clase encargada de configurar y generar el reporte de los resultados de las pruebas
@@ -18,14 +22,41 @@ public class ExtentReporterNG extends BaseTest {
     static String reporterPath = reportsPath + "//index.html";
 
     /**
-     * METODO estático que crea y configura el objeto ExtentReports.
-     * Este objeto se utiliza para generar el reporte HTML con los resultados de las pruebas.
+     * Instancia única del reporte, creada la primera vez que se solicita.
+     */
+    private static ExtentReports extent;
+
+    /**
+     * METODO estático que devuelve el objeto ExtentReports compartido por toda la JVM.
+     * El objeto se crea y configura una sola vez; las llamadas siguientes devuelven la misma instancia,
+     * de modo que todas las suites escriben en el mismo reporte.
+     * En una ejecución repartida ({@code -Dshard=i/n}) el reporte va al directorio de la partición, junto con
+     * una copia JSON que {@link testcomponents.ShardMerger} usa para unir las particiones.
+     *
+     * @return Un objeto ExtentReports que contiene la configuración del reporte y la información del sistema.
+     */
+    public static synchronized ExtentReports getReportObject() {
+        if (extent == null) {
+            if (ShardInterceptor.isSharded()) {
+                File dir = ShardInterceptor.outputDir();
+                extent = createReportObject(new File(dir, "index.html").getPath());
+                extent.attachReporter(new JsonFormatter(new File(dir, "extent.json")));
+            } else {
+                extent = createReportObject(reporterPath);
+            }
+        }
+        return extent;
+    }
+
+    /**
+     * Crea y configura un nuevo objeto ExtentReports.
      *
+     * @param path Ruta del archivo HTML del reporte.
      * @return Un objeto ExtentReports que contiene la configuración del reporte y la información del sistema.
      */
-    public static ExtentReports getReportObject() {
+    public static ExtentReports createReportObject(String path) {
         // Crear el reportador con la ruta especificada
-        ExtentSparkReporter reporter = new ExtentSparkReporter(reporterPath);
+        ExtentSparkReporter reporter = new ExtentSparkReporter(path);
 
         // Configurar el nombre del reporte que aparecerá en el encabezado
         reporter.config().setReportName("WebAutomationResults");
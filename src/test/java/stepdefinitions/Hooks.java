@@ -0,0 +1,45 @@
+package stepdefinitions;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ganchos de cada escenario: registran el escenario en su {@link ScenarioContext} y, al terminar, adjuntan una
+ * captura si falló y devuelven el navegador al pool.
+ */
+public class Hooks {
+
+    private static final Logger log = LoggerFactory.getLogger(Hooks.class);
+
+    private final ScenarioContext context;
+
+    public Hooks(ScenarioContext context) {
+        this.context = context;
+    }
+
+    @Before
+    public void startScenario(Scenario scenario) {
+        context.start(scenario);
+    }
+
+    @After
+    public void finishScenario(Scenario scenario) {
+        try {
+            WebDriver driver = context.getDriver();
+            if (scenario.isFailed() && driver != null) {
+                // La captura se toma aquí: cuando TestNG avisa del fallo, el navegador ya volvió al pool
+                scenario.attach(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), "image/png", scenario.getName());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Screenshot no creado para '{}': {}", scenario.getName(), e.getMessage());
+        } finally {
+            context.releaseBrowser(); // Devuelve el navegador al pool aunque el escenario falle
+        }
+    }
+}
@@ -1,36 +1,42 @@
 package stepdefinitions;
 
+import abstractcomponents.AppUrls;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.testng.Assert;
 import pageobjects.SolotodoPage;
-import testcomponents.BaseTest;
 
 import java.io.IOException;
 
-public class STvalidationSD extends BaseTest {
+public class STvalidationSD {
+
+    // Navegador del escenario, inyectado por PicoContainer (una instancia por escenario)
+    private final ScenarioContext context;
 
     public SolotodoPage solotodoPage;
 
+    public STvalidationSD(ScenarioContext context) {
+        this.context = context;
+    }
+
     @Given("I land on solotodo webpage")
     public void iLandOnSolotodoWebpage() throws IOException {
-        solotodoPage = launchApplicationSolotodo();
+        solotodoPage = context.openSolotodo();
     }
 
     @Given("Im in solotodo webpage")
     public void imInSolotodoWebpage() {
-        Assert.assertEquals(driver.getCurrentUrl(),"https://www.solotodo.cl/");
+        Assert.assertEquals(context.getDriver().getCurrentUrl(), AppUrls.solotodo());
     }
 
     @When("search for {string} button in header")
     public void searchForButtonInHeader(String elementName) {
-        solotodoPage.searchMainElementsInHeader(elementName);
+        Assert.assertTrue(solotodoPage.searchMainElementsInHeader(elementName), elementName);
     }
 
     @Then("all of them are present")
     public void allOfThemArePresent() {
         Assert.assertTrue(true);
-        driver.close();
     }
 }
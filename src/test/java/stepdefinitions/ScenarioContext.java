@@ -0,0 +1,75 @@
+package stepdefinitions;
+
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.WebDriver;
+import pageobjects.LandingPage;
+import pageobjects.SolotodoPage;
+import testcomponents.BaseTest;
+
+import java.io.IOException;
+
+/**
+ * Estado de un escenario de Cucumber, compartido por todas sus clases de pasos.
+ * PicoContainer crea una instancia por escenario y la inyecta por constructor en las definiciones de pasos y en
+ * {@link Hooks}; como cada escenario se ejecuta entero en un hilo, los escenarios en paralelo no comparten nada.
+ * El navegador se toma del pool la primera vez que un paso abre una página y {@link Hooks} lo devuelve al terminar.
+ */
+public class ScenarioContext {
+
+    // Ciclo de vida del navegador (pool, DriverContext, fixtures) reutilizado de la clase base de pruebas
+    private final BaseTest session = new BaseTest();
+    private Scenario scenario;
+    private boolean browserOpen;
+
+    void start(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * @return El escenario en ejecución.
+     */
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Toma un navegador del pool y abre la tienda.
+     *
+     * @return La página de inicio de sesión.
+     * @throws IOException Si ocurre un error durante la inicialización del navegador.
+     */
+    public LandingPage openLandingPage() throws IOException {
+        releaseBrowser(); // Un Background y un paso pueden abrir página dos veces: no se retienen dos sesiones
+        browserOpen = true;
+        return session.launchApplication();
+    }
+
+    /**
+     * Toma un navegador del pool y abre solotodo.
+     *
+     * @return La página de inicio de solotodo.
+     * @throws IOException Si ocurre un error durante la inicialización del navegador.
+     */
+    public SolotodoPage openSolotodo() throws IOException {
+        releaseBrowser();
+        browserOpen = true;
+        return session.launchApplicationSolotodo();
+    }
+
+    /**
+     * @return El navegador del escenario, o null si todavía no abrió ninguna página.
+     */
+    public WebDriver getDriver() {
+        return browserOpen ? session.getDriver() : null;
+    }
+
+    /**
+     * Devuelve el navegador al pool, si el escenario tenía uno.
+     */
+    void releaseBrowser() {
+        if (browserOpen) {
+            browserOpen = false;
+            session.tearDown();
+        }
+    }
+}
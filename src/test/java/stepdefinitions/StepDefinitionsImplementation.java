@@ -4,25 +4,29 @@ import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
-import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
 import pageobjects.*;
-import testcomponents.BaseTest;
 
 import java.io.IOException;
 import java.util.List;
 
-public class StepDefinitionsImplementation extends BaseTest {
+public class StepDefinitionsImplementation {
 
+    // Navegador del escenario, inyectado por PicoContainer (una instancia por escenario)
+    private final ScenarioContext context;
 
     public LandingPage landingPage;
     public ProductCataloguePage productCataloguePage;
     public ConfirmationPage confirmationPage;
 
+    public StepDefinitionsImplementation(ScenarioContext context) {
+        this.context = context;
+    }
+
     @Given("I land on Ecommerce Page")
     public void IlandonEcommercePage() throws IOException {
-        landingPage=launchApplication();
+        landingPage=context.openLandingPage();
     }
     @Given("Logged in with username {} and password {}")
     public void loggedInWithUsernameAndPassword(String username, String password) {
@@ -54,14 +58,12 @@ public class StepDefinitionsImplementation extends BaseTest {
         // Verifica que el mensaje de confirmación de la orden sea correcto
         String confirmationMessage = confirmationPage.getConfirmationMessage();
         Assert.assertTrue(confirmationMessage.equalsIgnoreCase(message));
-        driver.close();
     }
 
 
     @Then("{} error message is displayed")
     public void errorMessageIsDisplayed(String message) {
         Assert.assertEquals(message, landingPage.getErrorMessage());
-        driver.close();
     }
 
 
@@ -0,0 +1,212 @@
+package testcomponents;
+
+import abstractcomponents.AppUrls;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Preparación de datos por el API REST de la tienda ({@link AppUrls#api()}), para que las pruebas solo usen la
+ * interfaz en lo que comprueban. Funciona igual contra la aplicación real que contra el {@link FixtureServer}.
+ * <p>
+ * Ejemplo: {@code ApiFixtures.as(email, password).createOrder("ZARA COAT 3", "India")} deja un pedido hecho antes
+ * de abrir la página de pedidos. El inicio de sesión se hace una vez por credenciales y se reutiliza mientras
+ * el token no expire; el catálogo se lee una vez por URL del API.
+ */
+public final class ApiFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(15);
+    // Margen para no usar un token que está a punto de expirar
+    private static final long EXPIRY_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    /**
+     * Usuario de las pruebas que crean pedidos por el API: {@code -Dfixtures.ordersUser}, si no la clave
+     * {@code ordersUser} de GlobalData.properties. Crear un pedido vacía el carrito del usuario, así que conviene
+     * una cuenta que no use ninguna compra en paralelo. Con {@code -Dfixtures=true} por defecto es una cuenta
+     * propia del {@link FakeShopApi}; contra la aplicación real, el usuario de los datos de compra (la única cuenta
+     * que se sabe que existe) hasta que se configure una dedicada.
+     */
+    public static final String ORDERS_USER = setting("ordersUser",
+            Boolean.getBoolean("fixtures") ? "orders@gmail.com" : "anshika@gmail.com");
+    public static final String ORDERS_PASSWORD = setting("ordersPassword", "Iamking@000");
+
+    private static final Map<String, ApiFixtures> SESSIONS = new ConcurrentHashMap<>();
+    // Un inicio de sesión por credenciales a la vez, fuera de los bloqueos del mapa (es una llamada de red)
+    private static final Map<String, ReentrantLock> LOGIN_LOCKS = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, JsonNode>> CATALOGUES = new ConcurrentHashMap<>();
+
+    private final String api;
+    private final String token;
+    private final String userId;
+    private final long expiresAt;
+
+    private ApiFixtures(String api, String token, String userId) {
+        this.api = api;
+        this.token = token;
+        this.userId = userId;
+        this.expiresAt = SessionStateCache.jwtExpiry(token);
+    }
+
+    /**
+     * Inicia sesión en el API con las credenciales indicadas (o reutiliza una sesión vigente).
+     *
+     * @param email    Correo del usuario.
+     * @param password Contraseña del usuario.
+     * @return Las operaciones del API para ese usuario.
+     * @throws IllegalStateException Si el API rechaza las credenciales.
+     */
+    public static ApiFixtures as(String email, String password) {
+        String api = AppUrls.api();
+        String key = api + '\u0000' + email + '\u0000' + password;
+        ApiFixtures current = SESSIONS.get(key);
+        if (current != null && current.isValid()) {
+            return current;
+        }
+        ReentrantLock lock = LOGIN_LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            current = SESSIONS.get(key);
+            if (current != null && current.isValid()) {
+                return current; // Otro hilo inició sesión mientras se esperaba
+            }
+            ObjectNode credentials = MAPPER.createObjectNode();
+            credentials.put("userEmail", email);
+            credentials.put("userPassword", password);
+            JsonNode response = call(api, null, "POST", "/auth/login", credentials);
+            ApiFixtures session = new ApiFixtures(api, response.path("token").asText(), response.path("userId").asText());
+            SESSIONS.put(key, session);
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isValid() {
+        return System.currentTimeMillis() + EXPIRY_MARGIN_MILLIS < expiresAt;
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty("fixtures." + name);
+        return value != null ? value : DriverBootstrap.config().getProperty(name, defaultValue);
+    }
+
+    /**
+     * @param productName Nombre del producto tal como aparece en el catálogo.
+     * @return El producto completo devuelto por el API.
+     * @throws IllegalArgumentException Si el catálogo no tiene ese producto.
+     */
+    public JsonNode product(String productName) {
+        Map<String, JsonNode> catalogue = CATALOGUES.computeIfAbsent(api, k -> {
+            Map<String, JsonNode> byName = new LinkedHashMap<>();
+            for (JsonNode product : call("POST", "/product/get-all-products", MAPPER.createObjectNode()).path("data")) {
+                byName.put(product.path("productName").asText(), product);
+            }
+            return byName;
+        });
+        JsonNode product = catalogue.get(productName);
+        if (product == null) {
+            throw new IllegalArgumentException("Producto desconocido en el catálogo del API: " + productName);
+        }
+        return product;
+    }
+
+    /**
+     * Añade un producto al carrito del usuario.
+     *
+     * @param productName Nombre del producto.
+     * @return Este mismo objeto, para encadenar operaciones.
+     */
+    public ApiFixtures addToCart(String productName) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("_id", userId);
+        body.set("product", product(productName));
+        call("POST", "/user/add-to-cart", body);
+        return this;
+    }
+
+    /**
+     * Vacía el carrito del usuario.
+     *
+     * @return Este mismo objeto, para encadenar operaciones.
+     */
+    public ApiFixtures clearCart() {
+        for (JsonNode product : call("GET", "/user/get-cart-products/" + userId, null).path("products")) {
+            call("DELETE", "/user/delete-product-from-cart/" + product.path("_id").asText(), null);
+        }
+        return this;
+    }
+
+    /**
+     * Crea un pedido de un producto.
+     *
+     * @param productName Nombre del producto.
+     * @param country     País de envío.
+     * @return El identificador del pedido.
+     */
+    public String createOrder(String productName, String country) {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("country", country);
+        line.put("productOrderedId", product(productName).path("_id").asText());
+        ObjectNode body = MAPPER.createObjectNode();
+        body.putArray("orders").add(line);
+        return call("POST", "/order/create-order", body).path("orders").path(0).asText();
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    private JsonNode call(String method, String path, JsonNode body) {
+        return call(api, token, method, path, body);
+    }
+
+    private static JsonNode call(String api, String token, String method, String path, JsonNode body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(api + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestProperty("Accept", "application/json");
+            if (token != null) {
+                connection.setRequestProperty("Authorization", token); // El API espera el token sin "Bearer"
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    MAPPER.writeValue(out, body);
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                JsonNode response = in == null ? MAPPER.createObjectNode() : MAPPER.readTree(in);
+                if (status >= 400) {
+                    throw new IllegalStateException("API " + method + " " + path + " respondió " + status + ": "
+                            + response.path("message").asText(response.toString()));
+                }
+                return response == null || response.isMissingNode() ? MAPPER.createObjectNode() : response;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error llamando al API " + method + " " + path, e);
+        }
+    }
+}
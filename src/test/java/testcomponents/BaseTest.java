@@ -1,31 +1,29 @@
 package testcomponents;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.apache.commons.io.FileUtils;
+import abstractcomponents.DriverContext;
+import data.TestDataStore;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
 import pageobjects.LandingPage;
+import pageobjects.ProductCataloguePage;
 import pageobjects.SolotodoPage;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Clase base para la configuración y gestión de pruebas automatizadas.
@@ -34,18 +32,16 @@ import java.util.Properties;
  */
 public class BaseTest {
 
-    // Opciones para los navegadores Chrome, Edge y Firefox
-    ChromeOptions chromeOptions = new ChromeOptions();
-    EdgeOptions edgeOptions = new EdgeOptions();
-    FirefoxOptions firefoxOptions = new FirefoxOptions();
-
-    // Objeto WebDriver utilizado para controlar el navegador
-    public WebDriver driver;
+    // Perfil de navegador indicado por el parámetro "profile" de la suite XML (ver BrowserProfiles.properties)
+    private static volatile String suiteProfile;
 
     // Página de aterrizaje (LandingPage) que se utiliza como punto de entrada
     public LandingPage landingPage;
     public SolotodoPage solotodoPage;
 
+    // LandingPage de cada hilo: un DataProvider paralelo ejecuta varias filas a la vez sobre la misma instancia
+    private final ThreadLocal<LandingPage> threadLandingPage = new ThreadLocal<>();
+
     // Rutas del sistema y del directorio de informes
     protected static String systemPath = System.getProperty("user.dir");
     protected static String reportsPath = System.getProperty("user.dir") + "//reports//";
@@ -55,47 +51,107 @@ public class BaseTest {
 
     /**
      * Inicializa el WebDriver según el navegador especificado en las propiedades.
+     * La configuración y la ruta del driver se resuelven una sola vez por JVM en {@link DriverBootstrap}.
+     * El driver se decora con {@link StepTimingListener} para medir la latencia de cada comando.
+     * Con {@code -DbrowserContexts=true} no se arranca un navegador por sesión (ver {@link BrowserContexts}).
      *
      * @return Una instancia de WebDriver configurada para el navegador deseado.
      * @throws IOException Si ocurre un error al leer el archivo de configuración.
      */
     public WebDriver InitializeDriver() throws IOException {
-        Properties prop = new Properties();
-        FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/src/test/java/resources/GlobalData.properties");
-        prop.load(fis);
-
-        String browserName = System.getProperty("browser") != null ? System.getProperty("browser") : prop.getProperty("browser");
-
-        switch (browserName) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                chromeOptions.addArguments("--remote-allow-origins=*");
-                driver = new ChromeDriver(chromeOptions);
-                break;
-
-            case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver(edgeOptions);
-                break;
-
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver(firefoxOptions);
-                break;
-
-            default:
-                // Si no se especifica un navegador válido, usar Chrome por defecto
-                WebDriverManager.chromedriver().setup();
-                chromeOptions.addArguments("--remote-allow-origins=*");
-                driver = new ChromeDriver(chromeOptions);
+        WebDriver driver;
+        long start = System.nanoTime();
+        Properties prop = DriverBootstrap.config();
+
+        String browserName = DriverBootstrap.browserName();
+        BrowserProfile profile = BrowserProfile.named(profileName(prop)); // Opciones del navegador según el perfil
+        DriverBootstrap.driverFor(browserName); // Ya resuelto en bootstrapDrivers(): no vuelve a consultar versiones
+
+        // Con -DbrowserContexts=true la sesión es un contexto aislado de un navegador compartido (Chrome/Edge)
+        WebDriver contextDriver = BrowserContexts.isEnabled() ? BrowserContexts.open(browserName, profile) : null;
+        if (contextDriver != null) {
+            driver = contextDriver;
+        } else {
+            switch (browserName) {
+                case "chrome":
+                    driver = new ChromeDriver(profile.chromeOptions());
+                    break;
+
+                case "edge":
+                    driver = new EdgeDriver(profile.edgeOptions());
+                    break;
+
+                case "firefox":
+                    driver = new FirefoxDriver(profile.firefoxOptions());
+                    break;
+
+                default:
+                    // Si no se especifica un navegador válido, usar Chrome por defecto
+                    driver = new ChromeDriver(profile.chromeOptions());
+            }
         }
 
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().window().maximize();
+        profile.applyWindow(driver); // Maximiza la ventana salvo en perfiles headless o de tamaño fijo
+
+        // Bloqueo, caché y tiempos de red por CDP (solo Chrome/Edge); se conecta al driver sin decorar
+        NetworkLayer network = NetworkLayer.attach(driver);
 
+        // Mide cada comando y lo atribuye al método de page object que lo invocó (desactivable con -Dtiming=false)
+        if (!"false".equalsIgnoreCase(System.getProperty("timing"))) {
+            driver = new EventFiringDecorator<WebDriver>(new StepTimingListener()).decorate(driver);
+        }
+        NetworkLayer.bind(driver, network);
+
+        DriverBootstrap.recordSessionStart(System.nanoTime() - start);
         return driver;
     }
 
+    /**
+     * Lee la configuración y resuelve el driver del navegador al empezar la suite, antes de abrir ninguna sesión.
+     */
+    @BeforeSuite(alwaysRun = true)
+    public void bootstrapDrivers() {
+        DriverBootstrap.prepare();
+    }
+
+    /**
+     * Con {@code -Dprelaunch=true}, empieza a arrancar navegadores de reserva mientras TestNG prepara las clases
+     * y los DataProviders cargan sus datos (ver {@link DriverPrelauncher}).
+     */
+    @BeforeSuite(alwaysRun = true, dependsOnMethods = {"bootstrapDrivers", "selectBrowserProfile"})
+    public void prelaunchBrowsers() {
+        DriverPool.getInstance().prelaunch(this::InitializeDriver);
+    }
+
+    /**
+     * Nombre del perfil de navegador a usar: {@code -Dprofile}, si no el parámetro "profile" de la suite XML,
+     * si no la clave "profile" de GlobalData.properties y, por último, "default".
+     *
+     * @param prop Las propiedades de GlobalData.properties.
+     * @return El nombre del perfil.
+     */
+    private static String profileName(Properties prop) {
+        if (System.getProperty("profile") != null) {
+            return System.getProperty("profile");
+        }
+        if (suiteProfile != null) {
+            return suiteProfile;
+        }
+        return prop.getProperty("profile", BrowserProfile.DEFAULT);
+    }
+
+    /**
+     * Guarda el perfil de navegador indicado en la suite XML con {@code <parameter name="profile" value="..."/>}.
+     *
+     * @param profile El nombre del perfil, o vacío si la suite no lo indica.
+     */
+    @BeforeSuite(alwaysRun = true)
+    @Parameters("profile")
+    public void selectBrowserProfile(@Optional("") String profile) {
+        suiteProfile = profile.isEmpty() ? null : profile;
+    }
+
     /**
      * Lee un archivo JSON y lo convierte en una lista de mapas (HashMap).
      *
@@ -105,19 +161,14 @@ public class BaseTest {
      */
     public List<HashMap<String, String>> getJsonDataToMap(String filepath) throws IOException {
 
-        // Leer el contenido del archivo JSON como una cadena de texto
-        String jsonContent = FileUtils.readFileToString(new File(filepath), StandardCharsets.UTF_8);
-
-        // Convertir la cadena JSON en una lista de mapas (HashMap) utilizando Jackson
-        ObjectMapper mapper = new ObjectMapper();
-        List<HashMap<String, String>> data = mapper.readValue(jsonContent, new TypeReference<List<HashMap<String, String>>>() {
-        });
-
-        return data;
+        // El archivo se lee una sola vez por JVM en TestDataStore; se devuelve una copia de las filas
+        return TestDataStore.copies(filepath);
     }
 
     /**
      * Toma una captura de pantalla del estado actual del navegador.
+     * La captura se obtiene como bytes y se escribe a través del {@link ScreenshotPipeline};
+     * este METODO espera a que el archivo quede escrito.
      *
      * @param testCaseName Nombre del caso de prueba (para nombrar el archivo de la captura).
      * @param driver       Instancia del WebDriver utilizada para capturar la pantalla.
@@ -126,45 +177,112 @@ public class BaseTest {
      */
     public String getScreenshoot(String testCaseName, WebDriver driver) throws IOException {
 
-        // Capturar la pantalla como un archivo de imagen
-        TakesScreenshot ts = (TakesScreenshot) driver;
-        File source = ts.getScreenshotAs(OutputType.FILE);
+        // Capturar la pantalla como bytes PNG
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
 
-        // Definir la ruta y el nombre del archivo donde se guardará la captura
-        File file = new File(System.getProperty("user.dir") + "//reports//" + testCaseName + ".png");
-        FileUtils.copyFile(source, file);
-
-        return reportsPath + testCaseName + screenshotImageExtention;
+        try {
+            return ScreenshotPipeline.getInstance().submit(testCaseName, png).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Captura interrumpida: " + testCaseName, e);
+        } catch (ExecutionException e) {
+            throw new IOException("No se pudo guardar la captura: " + testCaseName, e.getCause());
+        }
     }
 
     /**
      * METODO que se ejecuta antes de cada METODO de prueba.
-     * Inicializa el navegador y navega a la página de inicio (LandingPage).
+     * Toma una sesión del {@link DriverPool} (reutilizada o nueva) y navega a la página de inicio (LandingPage).
+     * Si {@code -Dfixtures=true}, la página se sirve desde el {@link FixtureServer} local.
      *
      * @return Una instancia de LandingPage.
      * @throws IOException Si ocurre un error durante la inicialización del navegador.
      */
     @BeforeMethod(alwaysRun = true)
     public LandingPage launchApplication() throws IOException {
-        driver = InitializeDriver(); // Inicializar el WebDriver
-        landingPage = new LandingPage(driver); // Crear una instancia de LandingPage
+        FixtureServer.startIfEnabled(); // Con -Dfixtures=true se usa la copia local de la aplicación
+        leaseDriver(); // Obtener un WebDriver del pool para este hilo
+        landingPage = new LandingPage(); // Crear una instancia de LandingPage
+        threadLandingPage.set(landingPage);
         landingPage.goTo(); // Navegar a la página de inicio
         return landingPage;
     }
     public SolotodoPage launchApplicationSolotodo() throws IOException {
-        driver = InitializeDriver(); // Inicializar el WebDriver
-        solotodoPage = new SolotodoPage(driver); // Crear una instancia de LandingPage
+        FixtureServer.startIfEnabled(); // Con -Dfixtures=true se usa la copia local de solotodo
+        leaseDriver(); // Obtener un WebDriver del pool para este hilo
+        solotodoPage = new SolotodoPage(); // Crear una instancia de SolotodoPage
         solotodoPage.goTo(); // Navegar a la página de inicio
         return solotodoPage;
     }
 
+    /**
+     * Toma un navegador del {@link DriverPool}, lo registra en {@link DriverContext} para el hilo actual
+     * y marca el inicio de la prueba en su {@link NetworkLayer} y en {@link StepTimings}.
+     * Si la prueba es un reintento, primero espera el back-off de {@link Retry} sin ocupar ningún navegador.
+     *
+     * @throws IOException Si ocurre un error durante la inicialización del navegador.
+     */
+    private void leaseDriver() throws IOException {
+        Retry.awaitBackoff();
+        long start = System.nanoTime();
+        DriverContext.setDriver(DriverPool.getInstance().lease(this::InitializeDriver));
+        StepTimings.startTest(start); // Mide cuánto espera la prueba hasta enviar su primer comando
+        NetworkLayer network = NetworkLayer.of(getDriver());
+        if (network != null) {
+            network.mark(); // La cascada de red del reporte empieza aquí
+        }
+    }
+
     /**
      * METODO que se ejecuta después de cada METODO de prueba.
-     * Cierra el navegador y libera los recursos asociados.
+     * Devuelve el navegador al {@link DriverPool}, que lo limpia para la siguiente prueba.
      */
     @AfterMethod(alwaysRun = true)
     public void tearDown() {
-        driver.quit(); // Cerrar el navegador
+        StepTimings.closeSpan(); // Cierra el último método de página medido en este hilo
+        DriverPool.getInstance().release(getDriver()); // Devolver el navegador al pool
+        DriverContext.clear();
+        threadLandingPage.remove();
+    }
+
+    /**
+     * Inicia sesión en la aplicación y devuelve el catálogo de productos.
+     * Si estas credenciales ya iniciaron sesión antes en esta JVM, se reutiliza la sesión cacheada en
+     * {@link SessionStateCache} y el navegador abre el catálogo directamente, sin pasar por el formulario de login.
+     *
+     * @param email    El correo electrónico del usuario.
+     * @param password La contraseña del usuario.
+     * @return La página del catálogo de productos con la sesión iniciada.
+     * @throws InterruptedException Si el hilo se interrumpe mientras se espera el catálogo.
+     */
+    public ProductCataloguePage login(String email, String password) throws InterruptedException {
+        LandingPage landing = getLandingPage();
+        SessionStateCache.open(getDriver(), email, password, navigate -> {
+            if (navigate) {
+                landing.goTo(); // Volver al formulario de login
+            }
+            landing.loginApplication(email, password).getProductList(); // Espera a que cargue el catálogo
+        });
+        return new ProductCataloguePage(getDriver());
+    }
+
+    /**
+     * Obtiene la LandingPage abierta por {@link #launchApplication()} en el hilo actual.
+     * Debe usarse en lugar del campo {@code landingPage} en los tests con DataProvider paralelo.
+     *
+     * @return La LandingPage de la prueba en ejecución.
+     */
+    public LandingPage getLandingPage() {
+        return threadLandingPage.get();
+    }
+
+    /**
+     * Obtiene el WebDriver del hilo actual registrado en {@link DriverContext}.
+     *
+     * @return El WebDriver de la prueba en ejecución, o null si el hilo no tiene ninguno.
+     */
+    public WebDriver getDriver() {
+        return DriverContext.getDriver();
     }
 
 }
\ No newline at end of file
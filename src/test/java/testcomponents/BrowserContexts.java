@@ -0,0 +1,341 @@
+package testcomponents;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Varias sesiones aisladas dentro de un mismo proceso de Chrome o Edge ({@code -DbrowserContexts=true}).
+ * <p>
+ * En lugar de arrancar un navegador por sesión se arranca un navegador "anfitrión" por cada
+ * {@code -DbrowserContexts.hosts} (por defecto 1). Cada sesión nueva es un contexto de navegador propio
+ * (CDP {@code Target.createBrowserContext}, con cookies, almacenamiento y caché separados, como una ventana de
+ * incógnito) con una pestaña, y un chromedriver ligero que se conecta al anfitrión por {@code debuggerAddress}
+ * y controla solo esa pestaña. Para las páginas y el {@link DriverPool} es un WebDriver normal:
+ * {@code getWindowHandles()} solo ve las pestañas de su contexto y {@code quit()} elimina el contexto.
+ * <p>
+ * Firefox no admite este modo; con Firefox se arranca un navegador por sesión como siempre.
+ */
+public final class BrowserContexts {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserContexts.class);
+
+    private static final boolean ENABLED = Boolean.getBoolean("browserContexts");
+    private static final int MAX_HOSTS = Math.max(1, Integer.getInteger("browserContexts.hosts", 1));
+
+    private static final List<Host> HOSTS = new ArrayList<>();
+    // Protege HOSTS. Es un ReentrantLock y no synchronized para no fijar hilos virtuales mientras se arranca un
+    // anfitrión (ver VirtualThreads)
+    private static final ReentrantLock HOSTS_LOCK = new ReentrantLock();
+    private static final AtomicBoolean UNSUPPORTED_WARNED = new AtomicBoolean();
+
+    // Métricas
+    private static final LongAdder CONTEXTS = new LongAdder();
+    private static final LongAdder CONTEXT_NANOS = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserContexts::shutdown, "browser-contexts-shutdown"));
+    }
+
+    private BrowserContexts() {
+    }
+
+    /**
+     * Navegador anfitrión: un proceso de navegador que aloja los contextos de varias sesiones.
+     */
+    private static final class Host {
+        private final String browser;
+        private final ChromiumDriver driver;
+        private final String debuggerAddress;
+        private final AtomicInteger contexts = new AtomicInteger();
+        private final ReentrantLock cdpLock = new ReentrantLock();
+
+        private Host(String browser, ChromiumDriver driver, String debuggerAddress) {
+            this.browser = browser;
+            this.driver = driver;
+            this.debuggerAddress = debuggerAddress;
+        }
+
+        /**
+         * Los comandos CDP van por la sesión del anfitrión, que no admite comandos concurrentes.
+         */
+        private Map<String, Object> cdp(String command, Map<String, Object> parameters) {
+            cdpLock.lock();
+            try {
+                return driver.executeCdpCommand(command, parameters);
+            } finally {
+                cdpLock.unlock();
+            }
+        }
+
+        /**
+         * @return false si el navegador anfitrión (o su chromedriver) se cerró o dejó de responder.
+         */
+        private boolean isAlive() {
+            try {
+                cdp("Browser.getVersion", new HashMap<>());
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Libera el hueco reservado por {@link BrowserContexts#host} y elimina el contexto, si se llegó a crear.
+         */
+        private void release(String contextId) {
+            contexts.decrementAndGet();
+            if (contextId == null) {
+                return;
+            }
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("browserContextId", contextId);
+            try {
+                cdp("Target.disposeBrowserContext", parameters);
+            } catch (RuntimeException e) {
+                log.debug("No se pudo eliminar el contexto {}: {}", contextId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Contexto de navegador de una sesión y su pestaña inicial.
+     */
+    private static final class Context {
+        private final Host host;
+        private final String contextId;
+        private final String targetId;
+
+        private Context(Host host, String contextId, String targetId) {
+            this.host = host;
+            this.contextId = contextId;
+            this.targetId = targetId;
+        }
+
+        /**
+         * @return Las pestañas de {@code handles} que pertenecen a este contexto.
+         */
+        @SuppressWarnings("unchecked")
+        private Set<String> own(Set<String> handles) {
+            Set<String> mine = new HashSet<>();
+            Object targets = host.cdp("Target.getTargets", new HashMap<>()).get("targetInfos");
+            for (Map<String, Object> target : (List<Map<String, Object>>) targets) {
+                if (contextId.equals(target.get("browserContextId")) && handles.contains(target.get("targetId"))) {
+                    mine.add((String) target.get("targetId"));
+                }
+            }
+            return mine;
+        }
+
+        private void dispose() {
+            host.release(contextId);
+        }
+    }
+
+    private static final class ChromeContextDriver extends ChromeDriver {
+        private final Context context;
+
+        private ChromeContextDriver(ChromeOptions options, Context context) {
+            super(ChromeDriverService.createDefaultService(), options);
+            this.context = context;
+            switchTo().window(context.targetId);
+        }
+
+        @Override
+        public Set<String> getWindowHandles() {
+            return context.own(super.getWindowHandles());
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit(); // Solo desconecta el chromedriver: el navegador anfitrión sigue abierto
+            } finally {
+                context.dispose();
+            }
+        }
+    }
+
+    private static final class EdgeContextDriver extends EdgeDriver {
+        private final Context context;
+
+        private EdgeContextDriver(EdgeOptions options, Context context) {
+            super(EdgeDriverService.createDefaultService(), options);
+            this.context = context;
+            switchTo().window(context.targetId);
+        }
+
+        @Override
+        public Set<String> getWindowHandles() {
+            return context.own(super.getWindowHandles());
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                context.dispose();
+            }
+        }
+    }
+
+    /**
+     * @return true si está activado el modo de contextos ({@code -DbrowserContexts=true}).
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Abre una sesión nueva como contexto aislado de un navegador anfitrión.
+     *
+     * @param browser chrome o edge.
+     * @param profile Perfil de navegador con el que se arrancan los anfitriones.
+     * @return La sesión, o null si el navegador no admite contextos (Firefox).
+     */
+    public static WebDriver open(String browser, BrowserProfile profile) {
+        if (!"chrome".equals(browser) && !"edge".equals(browser)) {
+            if (UNSUPPORTED_WARNED.compareAndSet(false, true)) {
+                log.warn("{} no admite contextos de navegador: se arranca un navegador por sesión", browser);
+            }
+            return null;
+        }
+        long start = System.nanoTime();
+        Host host = host(browser, profile); // Reserva un hueco en el anfitrión
+        String contextId = null;
+        try {
+            Map<String, Object> contextParameters = new HashMap<>();
+            contextParameters.put("disposeOnDetach", false);
+            contextId = (String) host.cdp("Target.createBrowserContext", contextParameters).get("browserContextId");
+            Map<String, Object> targetParameters = new HashMap<>();
+            targetParameters.put("url", "about:blank");
+            targetParameters.put("browserContextId", contextId);
+            String targetId = (String) host.cdp("Target.createTarget", targetParameters).get("targetId");
+            Context context = new Context(host, contextId, targetId);
+
+            WebDriver driver = "edge".equals(browser)
+                    ? new EdgeContextDriver(attachOptions(new EdgeOptions(), profile.edgeOptions(), host), context)
+                    : new ChromeContextDriver(attachOptions(new ChromeOptions(), profile.chromeOptions(), host), context);
+            CONTEXTS.increment();
+            CONTEXT_NANOS.add(System.nanoTime() - start);
+            return driver;
+        } catch (RuntimeException e) {
+            host.release(contextId); // Falle donde falle, no quedan ni el hueco ni el contexto
+            throw e;
+        }
+    }
+
+    /**
+     * Opciones para conectar un chromedriver al anfitrión; del perfil solo se conserva la estrategia de carga
+     * (el resto de opciones ya se aplicaron al arrancar el anfitrión).
+     */
+    private static <O extends ChromiumOptions<O>> O attachOptions(O options, ChromiumOptions<?> profileOptions, Host host) {
+        options.setExperimentalOption("debuggerAddress", host.debuggerAddress);
+        Object strategy = profileOptions.getCapability("pageLoadStrategy");
+        if (strategy != null) {
+            options.setPageLoadStrategy(PageLoadStrategy.fromString(String.valueOf(strategy)));
+        }
+        return options;
+    }
+
+    /**
+     * Elige el anfitrión con menos contextos abiertos, arrancando uno nuevo si aún no se llegó al máximo, y le
+     * reserva un hueco que se libera con {@link Host#release}. Los anfitriones que dejaron de responder se
+     * descartan y se sustituyen.
+     *
+     * @return El anfitrión elegido.
+     */
+    private static Host host(String browser, BrowserProfile profile) {
+        HOSTS_LOCK.lock();
+        try {
+            return lightestHost(browser, profile);
+        } finally {
+            HOSTS_LOCK.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Host lightestHost(String browser, BrowserProfile profile) {
+        Host lightest = null;
+        int hostsOfBrowser = 0;
+        for (Iterator<Host> hosts = HOSTS.iterator(); hosts.hasNext(); ) {
+            Host host = hosts.next();
+            if (host.browser.equals(browser) && !host.isAlive()) {
+                log.warn("El navegador anfitrión {} en {} dejó de responder: se sustituye", browser, host.debuggerAddress);
+                hosts.remove();
+                quit(host);
+                continue;
+            }
+            if (host.browser.equals(browser)) {
+                hostsOfBrowser++;
+                if (lightest == null || host.contexts.get() < lightest.contexts.get()) {
+                    lightest = host;
+                }
+            }
+        }
+        if (lightest == null || (lightest.contexts.get() > 0 && hostsOfBrowser < MAX_HOSTS)) {
+            ChromiumDriver driver;
+            String capability;
+            if ("edge".equals(browser)) {
+                driver = new EdgeDriver(profile.edgeOptions());
+                capability = EdgeOptions.CAPABILITY;
+            } else {
+                driver = new ChromeDriver(profile.chromeOptions());
+                capability = ChromeOptions.CAPABILITY;
+            }
+            Map<String, Object> vendorOptions = (Map<String, Object>) driver.getCapabilities().getCapability(capability);
+            lightest = new Host(browser, driver, String.valueOf(vendorOptions.get("debuggerAddress")));
+            HOSTS.add(lightest);
+            log.info("Navegador anfitrión {} #{} en {}", browser, hostsOfBrowser + 1, lightest.debuggerAddress);
+        }
+        lightest.contexts.incrementAndGet();
+        return lightest;
+    }
+
+    private static void quit(Host host) {
+        try {
+            host.driver.quit();
+        } catch (RuntimeException e) {
+            log.debug("Error cerrando el navegador anfitrión: {}", e.getMessage());
+        }
+    }
+
+    private static void shutdown() {
+        HOSTS_LOCK.lock();
+        try {
+            for (Host host : HOSTS) {
+                quit(host);
+            }
+            if (CONTEXTS.sum() > 0) {
+                log.info("BrowserContexts: hosts={}, contexts={}, avgContextMs={}", HOSTS.size(), CONTEXTS.sum(),
+                        TimeUnit.NANOSECONDS.toMillis(CONTEXT_NANOS.sum() / CONTEXTS.sum()));
+            }
+            HOSTS.clear();
+        } finally {
+            HOSTS_LOCK.unlock();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package testcomponents;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Perfil de navegador con nombre, leído de {@code resources/BrowserProfiles.properties}.
+ * Traduce las mismas claves (headless, tamaño de ventana, bloqueo de imágenes y fuentes, GPU, /dev/shm,
+ * estrategia de carga) a las opciones de Chrome, Edge y Firefox.
+ */
+public final class BrowserProfile {
+
+    static final String DEFAULT = "default";
+
+    private static final String PROFILES_PATH =
+            System.getProperty("user.dir") + "/src/test/java/resources/BrowserProfiles.properties";
+
+    private static Properties profiles;
+
+    private final String name;
+    private final Properties properties;
+
+    private BrowserProfile(String name, Properties properties) {
+        this.name = name;
+        this.properties = properties;
+    }
+
+    /**
+     * Obtiene un perfil por nombre.
+     *
+     * @param name Nombre del perfil.
+     * @return El perfil.
+     * @throws IllegalArgumentException Si el perfil no existe.
+     */
+    public static BrowserProfile named(String name) {
+        Properties all = profiles();
+        if (all.stringPropertyNames().stream().noneMatch(key -> key.startsWith(name + "."))) {
+            throw new IllegalArgumentException("Perfil de navegador desconocido: " + name);
+        }
+        return new BrowserProfile(name, all);
+    }
+
+    private static synchronized Properties profiles() {
+        if (profiles == null) {
+            Properties loaded = new Properties();
+            try (InputStream in = new FileInputStream(PROFILES_PATH)) {
+                loaded.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer " + PROFILES_PATH, e);
+            }
+            profiles = loaded;
+        }
+        return profiles;
+    }
+
+    /**
+     * Busca una clave en el perfil y, si no está, en los perfiles de los que hereda.
+     */
+    private String get(String key) {
+        String profile = name;
+        for (int depth = 0; profile != null && depth < 10; depth++) {
+            String value = properties.getProperty(profile + "." + key);
+            if (value != null) {
+                return value.trim();
+            }
+            profile = properties.getProperty(profile + ".extends");
+        }
+        return null;
+    }
+
+    private boolean flag(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    private List<String> list(String key) {
+        List<String> values = new ArrayList<>();
+        String value = get(key);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return El tamaño fijo de ventana, o null si el perfil maximiza la ventana o no indica tamaño.
+     */
+    private Dimension windowSize() {
+        String window = get("window");
+        if (window == null || "maximize".equalsIgnoreCase(window)) {
+            return null;
+        }
+        String[] parts = window.toLowerCase().split("x");
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHeadless() {
+        return flag("headless");
+    }
+
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        applyChromium(options, "chrome");
+        return options;
+    }
+
+    public EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        applyChromium(options, "edge");
+        return options;
+    }
+
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        applyPageLoadStrategy(options);
+        if (isHeadless()) {
+            options.addArguments("-headless");
+        }
+        Dimension size = windowSize();
+        if (size != null) {
+            options.addArguments("--width=" + size.getWidth(), "--height=" + size.getHeight());
+        }
+        if (flag("blockImages")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (flag("blockFonts")) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        if (flag("disableGpu")) {
+            options.addPreference("layers.acceleration.disabled", true);
+        }
+        for (String pref : list("firefox.prefs")) {
+            String[] kv = pref.split("=", 2);
+            options.addPreference(kv[0].trim(), preferenceValue(kv.length > 1 ? kv[1].trim() : ""));
+        }
+        options.addArguments(list("firefox.args"));
+        return options;
+    }
+
+    private void applyChromium(ChromiumOptions<?> options, String browser) {
+        applyPageLoadStrategy(options);
+        if (isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        Dimension size = windowSize();
+        if (size != null) {
+            options.addArguments("--window-size=" + size.getWidth() + "," + size.getHeight());
+        }
+        if (flag("disableGpu")) {
+            options.addArguments("--disable-gpu");
+        }
+        if (flag("disableDevShm")) {
+            options.addArguments("--disable-dev-shm-usage");
+        }
+        if (flag("blockImages")) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        if (flag("blockFonts")) {
+            options.addArguments("--disable-remote-fonts");
+        }
+        options.addArguments(list(browser + ".args"));
+    }
+
+    private void applyPageLoadStrategy(AbstractDriverOptions<?> options) {
+        String strategy = get("pageLoadStrategy");
+        if (strategy != null) {
+            options.setPageLoadStrategy(PageLoadStrategy.fromString(strategy.toLowerCase()));
+        }
+    }
+
+    private static Object preferenceValue(String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.parseBoolean(value);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Ajusta la ventana de un navegador recién creado: la maximiza si el perfil lo pide (y no es headless,
+     * donde no tiene efecto); los tamaños fijos ya se pasan como argumentos al arrancar.
+     *
+     * @param driver El navegador recién creado.
+     */
+    public void applyWindow(WebDriver driver) {
+        if (!isHeadless() && windowSize() == null) {
+            driver.manage().window().maximize();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,21 @@
+package testcomponents;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Listener de TestNG que ajusta el {@code data-provider-thread-count} de cada suite al número de sesiones
+ * disponibles en el {@link DriverPool}. Debe declararse en el {@code <listeners>} del XML de la suite.
+ */
+public class DataProviderConcurrency implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = DataProviders.concurrency();
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package testcomponents;
+
+import data.TestDataStore;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Utilidades para los {@code @DataProvider} paralelos.
+ * <p>
+ * Las filas se entregan como {@code Iterator<Object[]>} perezoso desde {@link TestDataStore}, y pueden repartirse
+ * entre varias JVM por posición con {@code -DdataShard=i/n}. La concurrencia de los DataProviders paralelos se
+ * limita al número de sesiones del {@link DriverPool} (ver {@link DataProviderConcurrency}), de modo que nunca haya
+ * más filas ejecutándose que navegadores disponibles.
+ */
+public final class DataProviders {
+
+    private DataProviders() {
+    }
+
+    /**
+     * Filas de un archivo JSON para un DataProvider, filtradas por la partición {@code -DdataShard}.
+     *
+     * @param filePath Ruta del archivo JSON.
+     * @return Un iterador perezoso con un {@code HashMap<String, String>} por fila.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static Iterator<Object[]> fromJson(String filePath) throws IOException {
+        return shard(TestDataStore.parameters(filePath));
+    }
+
+    /**
+     * Filtra las filas de un DataProvider según la partición {@code -DdataShard}.
+     *
+     * @param rows Filas en un orden estable.
+     * @return Solo las filas que corresponden a esta JVM.
+     */
+    public static Iterator<Object[]> shard(Iterator<Object[]> rows) {
+        Shard shard = Shard.fromProperty("dataShard");
+        if (shard.isAll()) {
+            return rows;
+        }
+        return new Iterator<Object[]>() {
+            private int position = -1;
+            private Object[] next = advance();
+
+            private Object[] advance() {
+                while (rows.hasNext()) {
+                    Object[] row = rows.next();
+                    if (shard.includes(++position)) {
+                        return row;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Object[] current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Número máximo de filas ejecutándose a la vez: el tamaño del {@link DriverPool},
+     * o un valor menor indicado con {@code -DdataProviderThreads}.
+     *
+     * @return La concurrencia de los DataProviders paralelos.
+     */
+    public static int concurrency() {
+        int sessions = DriverPool.getInstance().getMaxSize();
+        return Math.max(1, Math.min(Integer.getInteger("dataProviderThreads", sessions), sessions));
+    }
+}
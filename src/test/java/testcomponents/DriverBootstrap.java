@@ -0,0 +1,289 @@
+package testcomponents;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.Config;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Arranque único de la configuración y de los binarios de los drivers.
+ * <p>
+ * {@code GlobalData.properties} se lee una sola vez por JVM y cada driver (chromedriver, msedgedriver,
+ * geckodriver) se resuelve una sola vez: la ruta resuelta se fija en la propiedad {@code webdriver.*.driver},
+ * de modo que las sesiones siguientes no vuelven a consultar versiones. Además, la ruta se guarda en
+ * {@code -Ddrivers.cacheFile} (por defecto {@code ~/.cache/selenium/resolved-drivers.properties}) junto con la
+ * versión del navegador instalado, y las siguientes ejecuciones la reutilizan sin llamar a WebDriverManager
+ * mientras no supere {@code -Ddrivers.ttlHours} (por defecto 24) y el navegador siga en la misma versión mayor:
+ * si el navegador se actualizó, el driver se vuelve a resolver.
+ * <p>
+ * Con {@code -Ddrivers.offline=true} nunca se sale a la red: se usan {@code -Dwebdriver.*.driver} o la caché
+ * (aunque haya caducado). Los tiempos de arranque se escriben en el log al terminar la JVM.
+ */
+public final class DriverBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverBootstrap.class);
+
+    private static final String CONFIG_PATH = System.getProperty("user.dir") + "/src/test/java/resources/GlobalData.properties";
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("drivers.cacheFile",
+            System.getProperty("user.home") + "/.cache/selenium/resolved-drivers.properties"));
+    private static final boolean OFFLINE = Boolean.getBoolean("drivers.offline");
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(Long.getLong("drivers.ttlHours", 24));
+
+    private static volatile Properties config;
+    private static final Map<String, String> DRIVERS = new ConcurrentHashMap<>();
+
+    // Métricas de arranque
+    private static volatile long configNanos;
+    private static final Map<String, Long> RESOLUTION_NANOS = new ConcurrentHashMap<>();
+    private static final LongAdder SESSIONS = new LongAdder();
+    private static final LongAdder SESSION_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_SESSION_NANOS = new LongAccumulator(Long::max, 0);
+    private static volatile long firstSessionNanos;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (config != null) {
+                log.info("DriverBootstrap: {}", summary());
+            }
+        }, "driver-bootstrap-summary"));
+    }
+
+    private DriverBootstrap() {
+    }
+
+    /**
+     * Devuelve la configuración de {@code GlobalData.properties}, leída la primera vez que se pide.
+     * El objeto se comparte entre hilos: solo debe leerse.
+     *
+     * @return Las propiedades de configuración.
+     */
+    public static Properties config() {
+        Properties loaded = config;
+        if (loaded == null) {
+            synchronized (DriverBootstrap.class) {
+                loaded = config;
+                if (loaded == null) {
+                    long start = System.nanoTime();
+                    loaded = new Properties();
+                    try (InputStream in = new FileInputStream(CONFIG_PATH)) {
+                        loaded.load(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("No se pudo leer " + CONFIG_PATH, e);
+                    }
+                    configNanos = System.nanoTime() - start;
+                    config = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @return El navegador a usar: {@code -Dbrowser} o la clave "browser" de la configuración.
+     */
+    public static String browserName() {
+        String browser = System.getProperty("browser");
+        return browser != null ? browser : config().getProperty("browser", "chrome");
+    }
+
+    /**
+     * Resuelve por adelantado el driver del navegador configurado (se llama al empezar la suite).
+     * Es de mejor esfuerzo: si falla, el error se repetirá al crear la primera sesión.
+     */
+    public static void prepare() {
+        try {
+            driverFor(browserName());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo preparar el driver de {}: {}", browserName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve la ruta del driver del navegador, resolviéndola solo la primera vez en esta JVM.
+     *
+     * @param browser chrome, edge o firefox (cualquier otro valor se trata como chrome).
+     * @return La ruta del binario del driver.
+     */
+    public static String driverFor(String browser) {
+        return DRIVERS.computeIfAbsent(normalize(browser), DriverBootstrap::resolve);
+    }
+
+    /**
+     * Registra lo que tardó en arrancar una sesión de navegador (desde que se pidió hasta que quedó lista).
+     */
+    public static void recordSessionStart(long nanos) {
+        if (SESSIONS.sum() == 0) {
+            firstSessionNanos = nanos;
+        }
+        SESSIONS.increment();
+        SESSION_NANOS.add(nanos);
+        MAX_SESSION_NANOS.accumulate(nanos);
+    }
+
+    private static String normalize(String browser) {
+        return "edge".equals(browser) || "firefox".equals(browser) ? browser : "chrome";
+    }
+
+    private static String resolve(String browser) {
+        long start = System.nanoTime();
+        try {
+            String property = driverProperty(browser);
+            String explicit = System.getProperty(property);
+            if (explicit != null && Files.isExecutable(Paths.get(explicit))) {
+                return explicit; // Indicado a mano (-Dwebdriver.*.driver): no hay nada que resolver
+            }
+
+            Properties cache = readCache();
+            String cachedPath = cache.getProperty(browser + ".path");
+            long resolvedAt = Long.parseLong(cache.getProperty(browser + ".resolvedAt", "0"));
+            boolean usable = cachedPath != null && Files.isExecutable(Paths.get(cachedPath));
+            String browserVersion = detectBrowserVersion(browser);
+            boolean sameBrowser = sameMajor(browserVersion, cache.getProperty(browser + ".browserVersion"));
+            if (usable && (OFFLINE || (sameBrowser && System.currentTimeMillis() - resolvedAt < TTL_MILLIS))) {
+                if (!sameBrowser) {
+                    log.warn("{} está en la versión {} pero el driver de la caché es de la {}: modo offline, se usa igualmente",
+                            browser, browserVersion, cache.getProperty(browser + ".browserVersion"));
+                }
+                System.setProperty(property, cachedPath);
+                return cachedPath;
+            }
+            if (OFFLINE) {
+                throw new IllegalStateException("Modo offline sin driver de " + browser + " en " + CACHE_FILE
+                        + ": ejecuta una vez con red o indica -D" + property);
+            }
+
+            try {
+                WebDriverManager manager = WebDriverManager.getInstance(managerType(browser));
+                manager.setup(); // Fija también la propiedad webdriver.*.driver
+                String path = manager.getDownloadedDriverPath();
+                System.setProperty(property, path);
+                writeCache(browser, path, manager.getDownloadedDriverVersion(), browserVersion);
+                return path;
+            } catch (RuntimeException e) {
+                if (usable) {
+                    log.warn("No se pudo resolver el driver de {} ({}); se usa el de la caché {}", browser, e.getMessage(), cachedPath);
+                    System.setProperty(property, cachedPath);
+                    return cachedPath;
+                }
+                throw e;
+            }
+        } finally {
+            RESOLUTION_NANOS.put(browser, System.nanoTime() - start);
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "edge":
+                return "webdriver.edge.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static DriverManagerType managerType(String browser) {
+        switch (browser) {
+            case "edge":
+                return DriverManagerType.EDGE;
+            case "firefox":
+                return DriverManagerType.FIREFOX;
+            default:
+                return DriverManagerType.CHROME;
+        }
+    }
+
+    /**
+     * @return La versión del navegador instalado (consulta local, sin red), o null si no se puede detectar.
+     */
+    private static String detectBrowserVersion(String browser) {
+        try {
+            // Con la tabla de comandos local: descargarla costaría más que lo que se ahorra con la caché
+            Config local = new Config().setCommandsPropertiesOnlineFirst(false);
+            return new VersionDetector(local, null).getBrowserVersionFromTheShell(browser).orElse(null);
+        } catch (RuntimeException e) {
+            log.debug("No se pudo detectar la versión de {}: {}", browser, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * El driver vale mientras no cambie la versión mayor del navegador. Si no se puede detectar la versión
+     * actual, se confía en la caché (como antes de guardar versiones).
+     */
+    private static boolean sameMajor(String detected, String cached) {
+        if (detected == null) {
+            return true;
+        }
+        return cached != null && !cached.isEmpty()
+                && VersionDetector.getMajorVersion(detected).equals(VersionDetector.getMajorVersion(cached));
+    }
+
+    private static Properties readCache() {
+        Properties cache = new Properties();
+        if (Files.isRegularFile(CACHE_FILE)) {
+            try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+                cache.load(in);
+            } catch (IOException e) {
+                log.debug("Caché de drivers ilegible {}: {}", CACHE_FILE, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static synchronized void writeCache(String browser, String path, String version, String browserVersion) {
+        try {
+            Properties cache = readCache();
+            cache.setProperty(browser + ".path", path);
+            cache.setProperty(browser + ".version", version == null ? "" : version);
+            cache.setProperty(browser + ".browserVersion", browserVersion == null ? "" : browserVersion);
+            cache.setProperty(browser + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+            Files.createDirectories(CACHE_FILE.getParent());
+            // Varias JVM (shards) pueden escribir a la vez: temporal y movimiento atómico
+            Path tmp = Files.createTempFile(CACHE_FILE.getParent(), "resolved-drivers", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                cache.store(out, "Drivers resueltos por DriverBootstrap");
+            }
+            Files.move(tmp, CACHE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("No se pudo guardar la caché de drivers: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Tiempos de arranque: lectura de configuración, resolución de drivers y creación de sesiones.
+     */
+    public static String summary() {
+        long sessions = SESSIONS.sum();
+        StringBuilder sb = new StringBuilder()
+                .append("configMs=").append(TimeUnit.NANOSECONDS.toMillis(configNanos));
+        RESOLUTION_NANOS.forEach((browser, nanos) ->
+                sb.append(", resolve.").append(browser).append("Ms=").append(TimeUnit.NANOSECONDS.toMillis(nanos)));
+        sb.append(", sessions=").append(sessions);
+        if (sessions > 0) {
+            sb.append(", firstSessionMs=").append(TimeUnit.NANOSECONDS.toMillis(firstSessionNanos))
+                    .append(", avgSessionMs=").append(TimeUnit.NANOSECONDS.toMillis(SESSION_NANOS.sum() / sessions))
+                    .append(", maxSessionMs=").append(TimeUnit.NANOSECONDS.toMillis(MAX_SESSION_NANOS.get()));
+        }
+        return sb.toString();
+    }
+}
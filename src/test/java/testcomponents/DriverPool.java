@@ -0,0 +1,337 @@
+package testcomponents;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool acotado y thread-safe de sesiones WebDriver.
+ * En lugar de abrir y cerrar un navegador por cada METODO de prueba, las sesiones se prestan (lease),
+ * se limpian al devolverse (cookies, localStorage y sessionStorage) y se reutilizan en la siguiente prueba.
+ * Antes de entregar una sesión reutilizada se verifica que siga viva; las sesiones caídas se descartan.
+ * <p>
+ * El tamaño máximo se configura con {@code -DpoolSize} (por defecto 5, igual que el thread-count de las suites)
+ * y la reutilización se puede desactivar con {@code -DdriverPool=false}. Con {@code -Dprelaunch=true} los navegadores
+ * nuevos se arrancan por adelantado y los descartados se cierran en segundo plano (ver {@link DriverPrelauncher}).
+ */
+public class DriverPool {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPool.class);
+
+    private static final DriverPool INSTANCE = shared(Integer.getInteger("poolSize", 5),
+            Boolean.parseBoolean(System.getProperty("driverPool", "true")));
+
+    /**
+     * Fábrica de sesiones utilizada cuando el pool no tiene sesiones libres.
+     */
+    @FunctionalInterface
+    public interface SessionFactory {
+        WebDriver create() throws IOException;
+    }
+
+    private final int maxSize;
+    private final boolean reuseSessions;
+    private final Semaphore permits;
+    // Null si no está activado el arranque anticipado
+    private final DriverPrelauncher prelauncher;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    // Sesiones entregadas y aún no devueltas
+    private final AtomicInteger inUse = new AtomicInteger();
+    // Sesiones prestadas que se cerrarán en lugar de volver al pool (los proxies decorados se comparan por identidad)
+    private final Set<WebDriver> discardOnRelease = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    // Contadores expuestos para medir el efecto del pool
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+
+    /**
+     * Crea un pool independiente del compartido (por ejemplo, para pruebas con sesiones falsas), sin arranque
+     * anticipado. Quien lo crea debe cerrarlo con {@link #shutdown()}.
+     *
+     * @param maxSize       Número máximo de sesiones prestadas a la vez.
+     * @param reuseSessions false para cerrar cada sesión al devolverla.
+     */
+    public DriverPool(int maxSize, boolean reuseSessions) {
+        this(maxSize, reuseSessions, false);
+    }
+
+    private DriverPool(int maxSize, boolean reuseSessions, boolean prelaunch) {
+        this.maxSize = Math.max(1, maxSize);
+        this.reuseSessions = reuseSessions;
+        this.permits = new Semaphore(this.maxSize, true);
+        this.prelauncher = prelaunch ? DriverPrelauncher.fromProperties(this.maxSize, this::freeSlots) : null;
+    }
+
+    /**
+     * Pool compartido de la JVM: con arranque anticipado si se activó y cerrado automáticamente al terminar.
+     */
+    private static DriverPool shared(int maxSize, boolean reuseSessions) {
+        DriverPool pool = new DriverPool(maxSize, reuseSessions, true);
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+        return pool;
+    }
+
+    /**
+     * @return La instancia compartida del pool para toda la JVM.
+     */
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Empieza a arrancar sesiones de reserva, si está activado el arranque anticipado ({@code -Dprelaunch=true}).
+     * Se llama al empezar la suite para que los navegadores arranquen mientras se cargan los datos.
+     *
+     * @param factory Fábrica con la que se arrancan las sesiones de reserva.
+     */
+    public void prelaunch(SessionFactory factory) {
+        if (prelauncher != null) {
+            prelauncher.start(factory);
+        }
+    }
+
+    /**
+     * Presta una sesión al hilo actual. Si hay sesiones libres y sanas se reutilizan;
+     * en caso contrario se toma una de reserva ya arrancada o se crea una nueva con la fábrica indicada.
+     * Bloquea mientras el pool tenga todas sus sesiones prestadas.
+     *
+     * @param factory Fábrica que crea una sesión nueva cuando no hay ninguna reutilizable.
+     * @return Una sesión lista para navegar.
+     * @throws IOException Si la fábrica falla al crear la sesión.
+     */
+    public WebDriver lease(SessionFactory factory) throws IOException {
+        long start = System.nanoTime();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una sesión del pool", e);
+        }
+        leaseWaitNanos.add(System.nanoTime() - start);
+        leases.increment();
+
+        try {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (isHealthy(driver)) {
+                    inUse.incrementAndGet();
+                    reused.increment();
+                    recordLease(false);
+                    return driver;
+                }
+                evict(driver);
+            }
+            if (prelauncher != null) {
+                prelauncher.start(factory); // Por si la suite no llamó a prelaunch (escenarios de Cucumber)
+                driver = prelauncher.take();
+            }
+            if (driver == null) {
+                driver = factory.create();
+            }
+            inUse.incrementAndGet();
+            created.increment();
+            recordLease(true);
+            return driver;
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve una sesión al pool. La sesión se limpia antes de quedar disponible;
+     * si la limpieza falla, la reutilización está desactivada o se marcó con {@link #discardOnRelease(WebDriver)}, se cierra.
+     *
+     * @param driver La sesión prestada previamente con {@link #lease(SessionFactory)}.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        boolean discard = discardOnRelease.remove(driver);
+        try {
+            if (reuseSessions && !discard && reset(driver)) {
+                idle.offerFirst(driver); // LIFO: la sesión más reciente es la más "caliente"
+            } else {
+                evict(driver);
+            }
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Marca una sesión prestada para que se cierre cuando se devuelva, en lugar de reutilizarse
+     * (por ejemplo, antes de reintentar una prueba que falló por la sesión).
+     *
+     * @param driver La sesión prestada.
+     */
+    public void discardOnRelease(WebDriver driver) {
+        if (driver != null) {
+            discardOnRelease.add(driver);
+        }
+    }
+
+    /**
+     * Descarta una sesión prestada sin devolverla al pool (por ejemplo, tras perder la sesión del navegador).
+     *
+     * @param driver La sesión a cerrar.
+     */
+    public void invalidate(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        discardOnRelease.remove(driver);
+        try {
+            evict(driver);
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Limpia el estado de la sesión para que la siguiente prueba empiece desde cero.
+     *
+     * @return true si la sesión quedó limpia y puede reutilizarse.
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            closeExtraWindows(driver);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("No se pudo limpiar la sesión, se descarta: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void closeExtraWindows(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        if (handles.size() <= 1) {
+            return;
+        }
+        String main = handles.get(0);
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(main);
+    }
+
+    /**
+     * Comprobación de salud: una sola llamada barata que falla si el navegador se cerró o se cayó.
+     */
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Cuántas sesiones más admite el pool: el tamaño menos las prestadas y las libres.
+     */
+    private int freeSlots() {
+        return maxSize - inUse.get() - idle.size();
+    }
+
+    private void recordLease(boolean miss) {
+        if (prelauncher != null) {
+            prelauncher.recordLease(miss);
+        }
+    }
+
+    private void evict(WebDriver driver) {
+        evicted.increment();
+        if (prelauncher != null) {
+            prelauncher.quitAsync(driver); // La prueba no espera al cierre del navegador (ni a desconectar la red)
+            return;
+        }
+        NetworkLayer.unbind(driver);
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            log.debug("Error cerrando una sesión descartada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra todas las sesiones libres. En el pool compartido se ejecuta automáticamente al terminar la JVM.
+     */
+    public void shutdown() {
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            NetworkLayer.unbind(driver);
+            try {
+                driver.quit();
+            } catch (RuntimeException e) {
+                log.debug("Error cerrando una sesión del pool: {}", e.getMessage());
+            }
+        }
+        if (prelauncher != null) {
+            prelauncher.shutdown();
+        }
+        if (leases.sum() > 0) {
+            log.info("DriverPool: {}", this);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getLeaseCount() {
+        return leases.sum();
+    }
+
+    public long getReusedCount() {
+        return reused.sum();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public long getLeaseWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "leases=" + getLeaseCount()
+                + ", reused=" + getReusedCount()
+                + ", created=" + getCreatedCount()
+                + ", evicted=" + getEvictedCount()
+                + ", leaseWaitMs=" + getLeaseWaitMillis()
+                + ", idle=" + idle.size()
+                + ", maxSize=" + maxSize;
+    }
+}
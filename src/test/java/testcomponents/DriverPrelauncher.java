@@ -0,0 +1,236 @@
+package testcomponents;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Arranque anticipado y cierre asíncrono de navegadores para el {@link DriverPool} ({@code -Dprelaunch=true}).
+ * <p>
+ * Mantiene hasta {@code -Dprelaunch.spares} sesiones de reserva (por defecto el tamaño del pool, que es también el
+ * thread-count de las suites) arrancando en segundo plano, de modo que una prueba que no encuentra una sesión libre
+ * en el pool toma una de reserva ya arrancada (o la que lleva más tiempo arrancando) en lugar de esperar un
+ * arranque completo. El número de reservas sigue a la demanda reciente: cuántas de las últimas peticiones al pool
+ * necesitaron un navegador nuevo. Durante la primera tanda (hasta llenar la ventana de peticiones) se mantienen
+ * todas, para que las primeras pruebas no esperen mientras se cargan los datos. En ningún caso se pasa del
+ * tamaño del pool: las reservas más las sesiones prestadas y libres no superan {@code -DpoolSize}. Las sesiones
+ * descartadas se cierran en un hilo aparte.
+ */
+final class DriverPrelauncher {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPrelauncher.class);
+
+    private final int maxSpares;
+    // Sesiones que el pool aún admite (tamaño menos prestadas y libres): el techo de reservas
+    private final IntSupplier freeSlots;
+    // Peticiones recientes que se tienen en cuenta para la demanda
+    private final boolean[] recentMisses;
+    private int leases;
+
+    // Reservas en orden de arranque: la primera es la que antes estará lista
+    private final Deque<CompletableFuture<WebDriver>> spares = new ArrayDeque<>();
+    private volatile DriverPool.SessionFactory factory;
+
+    private final ExecutorService launcher;
+    private final ExecutorService quitter = Executors.newSingleThreadExecutor(daemon("driver-quit"));
+
+    // Métricas
+    private final LongAdder launched = new LongAdder();
+    private final LongAdder used = new LongAdder();
+    private final LongAdder wasted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder asyncQuits = new LongAdder();
+
+    DriverPrelauncher(int maxSpares, int window, IntSupplier freeSlots) {
+        this.maxSpares = Math.max(1, maxSpares);
+        this.freeSlots = freeSlots;
+        this.recentMisses = new boolean[Math.max(1, window)];
+        this.launcher = Executors.newFixedThreadPool(this.maxSpares, daemon("driver-prelaunch"));
+    }
+
+    /**
+     * @return Un prelanzador si está activado con {@code -Dprelaunch=true}, o null.
+     */
+    static DriverPrelauncher fromProperties(int poolSize, IntSupplier freeSlots) {
+        if (!Boolean.getBoolean("prelaunch")) {
+            return null;
+        }
+        return new DriverPrelauncher(Integer.getInteger("prelaunch.spares", poolSize), poolSize, freeSlots);
+    }
+
+    /**
+     * Registra la fábrica de sesiones (todas las de {@link BaseTest} son equivalentes) y arranca las reservas.
+     */
+    void start(DriverPool.SessionFactory sessionFactory) {
+        if (factory == null) {
+            factory = sessionFactory;
+        }
+        refill();
+    }
+
+    /**
+     * Entrega una sesión de reserva, esperando a que termine de arrancar si aún no está lista.
+     *
+     * @return La sesión, o null si no hay reservas (o todas fallaron al arrancar).
+     */
+    WebDriver take() {
+        CompletableFuture<WebDriver> spare;
+        while ((spare = poll()) != null) {
+            try {
+                WebDriver driver = spare.join();
+                used.increment();
+                return driver;
+            } catch (CompletionException e) {
+                failed.increment();
+                log.warn("Falló el arranque anticipado de un navegador: {}", e.getCause().toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registra una petición al pool y ajusta las reservas a la demanda.
+     *
+     * @param miss true si la petición no encontró una sesión libre en el pool.
+     */
+    void recordLease(boolean miss) {
+        synchronized (this) {
+            recentMisses[leases++ % recentMisses.length] = miss;
+        }
+        refill();
+    }
+
+    /**
+     * Cierra una sesión en segundo plano.
+     */
+    void quitAsync(WebDriver driver) {
+        asyncQuits.increment();
+        try {
+            quitter.execute(() -> quit(driver));
+        } catch (RejectedExecutionException e) {
+            quit(driver); // Durante el apagado
+        }
+    }
+
+    /**
+     * Reservas deseadas: las peticiones recientes que necesitaron un navegador nuevo (todas durante la primera tanda),
+     * hasta el máximo de reservas y sin pasar del hueco que queda en el pool.
+     */
+    private synchronized int target() {
+        int demand = maxSpares;
+        if (leases >= recentMisses.length) {
+            demand = 0;
+            for (boolean miss : recentMisses) {
+                if (miss) {
+                    demand++;
+                }
+            }
+        }
+        return Math.max(0, Math.min(Math.min(maxSpares, demand), freeSlots.getAsInt()));
+    }
+
+    private void refill() {
+        DriverPool.SessionFactory sessionFactory = factory;
+        if (sessionFactory == null) {
+            return;
+        }
+        int target = target();
+        synchronized (spares) {
+            while (spares.size() < target) {
+                launched.increment();
+                spares.addLast(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return sessionFactory.create();
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, launcher));
+            }
+            // Sin demanda, las reservas ya arrancadas que sobran se cierran
+            while (spares.size() > target && spares.peekLast().isDone()) {
+                CompletableFuture<WebDriver> extra = spares.pollLast();
+                if (!extra.isCompletedExceptionally()) {
+                    wasted.increment();
+                    quitAsync(extra.join());
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<WebDriver> poll() {
+        synchronized (spares) {
+            return spares.pollFirst();
+        }
+    }
+
+    /**
+     * Cierra las reservas y espera a que terminen los cierres pendientes. Lo llama {@link DriverPool#shutdown()}.
+     */
+    void shutdown() {
+        factory = null; // No se arrancan más reservas
+        CompletableFuture<WebDriver> spare;
+        while ((spare = poll()) != null) {
+            try {
+                WebDriver driver = spare.join();
+                wasted.increment();
+                quit(driver);
+            } catch (CompletionException e) {
+                failed.increment();
+            }
+        }
+        launcher.shutdown();
+        quitter.shutdown();
+        try {
+            if (!quitter.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Quedaron navegadores sin cerrar al terminar");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (launched.sum() > 0) {
+            log.info("DriverPrelauncher: {}", this);
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        NetworkLayer.unbind(driver);
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            log.debug("Error cerrando una sesión: {}", e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "launched=" + launched.sum()
+                + ", used=" + used.sum()
+                + ", wasted=" + wasted.sum()
+                + ", failed=" + failed.sum()
+                + ", asyncQuits=" + asyncQuits.sum()
+                + ", maxSpares=" + maxSpares;
+    }
+}
@@ -0,0 +1,86 @@
+package testcomponents;
+
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+
+/**
+ * Clasifica la causa de un fallo para decidir si merece reintentarse.
+ * <ul>
+ *     <li>{@link Kind#SESSION_LOST}: el navegador se cerró, se colgó o dejó de responder; se reintenta con otra sesión.</li>
+ *     <li>{@link Kind#TRANSIENT}: esperas agotadas, elementos obsoletos o tapados, errores de red; se reintenta.</li>
+ *     <li>{@link Kind#DETERMINISTIC}: aserciones y cualquier otra excepción; volver a ejecutar daría el mismo resultado.</li>
+ * </ul>
+ * Se recorre toda la cadena de causas: la primera que no sea determinista decide.
+ */
+public final class FailureClassifier {
+
+    public enum Kind {
+        TRANSIENT,
+        SESSION_LOST,
+        DETERMINISTIC;
+
+        public boolean isRetryable() {
+            return this != DETERMINISTIC;
+        }
+    }
+
+    // Mensajes de WebDriverException genéricas que indican que la sesión del navegador ya no existe
+    private static final String[] SESSION_LOST_MESSAGES = {
+            "invalid session id", "session deleted", "chrome not reachable", "browser has closed",
+            "disconnected: not connected to devtools", "target window already closed", "no such window"
+    };
+
+    private FailureClassifier() {
+    }
+
+    /**
+     * @param throwable La excepción con la que terminó la prueba (puede ser null).
+     * @return El tipo de fallo.
+     */
+    public static Kind classify(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof AssertionError) {
+                return Kind.DETERMINISTIC; // Lo que la prueba comprueba no se cumple: no depende del reintento
+            }
+            Kind kind = classifyOne(t);
+            if (kind != Kind.DETERMINISTIC) {
+                return kind;
+            }
+        }
+        return Kind.DETERMINISTIC;
+    }
+
+    private static Kind classifyOne(Throwable t) {
+        if (t instanceof NoSuchSessionException || t instanceof UnreachableBrowserException) {
+            return Kind.SESSION_LOST;
+        }
+        if (t instanceof TimeoutException
+                || t instanceof StaleElementReferenceException
+                || t instanceof ElementClickInterceptedException
+                || t instanceof ElementNotInteractableException
+                || t instanceof SocketTimeoutException
+                || t instanceof ConnectException
+                || t instanceof UncheckedIOException) {
+            return Kind.TRANSIENT;
+        }
+        if (t instanceof WebDriverException && t.getMessage() != null) {
+            String message = t.getMessage().toLowerCase(Locale.ROOT);
+            for (String lost : SESSION_LOST_MESSAGES) {
+                if (message.contains(lost)) {
+                    return Kind.SESSION_LOST;
+                }
+            }
+        }
+        return Kind.DETERMINISTIC;
+    }
+}
@@ -0,0 +1,270 @@
+package testcomponents;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API falso de la tienda ({@code /api/ecom}) que usa la copia local servida por {@link FixtureServer}.
+ * <p>
+ * Implementa en memoria las rutas que usa la interfaz: login, catálogo, carrito y pedidos, con las mismas
+ * formas de petición y respuesta que el API real. Los tokens son JWT sin firma válida pero con {@code exp},
+ * de modo que {@link SessionStateCache} los trata igual que los reales.
+ */
+public final class FakeShopApi implements HttpHandler {
+
+    static final String PREFIX = "/api/ecom";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long TOKEN_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    // Usuarios de los datos de prueba (PurchaseOrder.json, los tests y el de los pedidos por API)
+    private static final Map<String, String> USERS = new LinkedHashMap<>();
+
+    static {
+        USERS.put("anshika@gmail.com", "Iamking@000");
+        USERS.put("shetty@gmail.com", "Iamking@000");
+        USERS.put(ApiFixtures.ORDERS_USER, ApiFixtures.ORDERS_PASSWORD);
+    }
+
+    private final List<ObjectNode> products = new ArrayList<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, List<JsonNode>> carts = new ConcurrentHashMap<>();
+    private final Map<String, List<ObjectNode>> orders = new ConcurrentHashMap<>();
+
+    /**
+     * @param extraProducts Productos adicionales generados ("PRODUCT 1", "PRODUCT 2"...) para catálogos grandes.
+     */
+    FakeShopApi(int extraProducts) {
+        addProduct("ZARA COAT 3", 31500, "fashion");
+        addProduct("ADIDAS ORIGINAL", 31500, "fashion");
+        addProduct("IPHONE 13 PRO", 231500, "electronics");
+        for (int i = 1; i <= extraProducts; i++) {
+            addProduct("PRODUCT " + i, 1000 + i, "household");
+        }
+    }
+
+    private void addProduct(String name, int price, String category) {
+        ObjectNode product = MAPPER.createObjectNode();
+        product.put("_id", String.format("%024x", products.size() + 1));
+        product.put("productName", name);
+        product.put("productCategory", category);
+        product.put("productPrice", price);
+        product.put("productDescription", name);
+        products.add(product);
+    }
+
+    /**
+     * Vacía carritos, pedidos y tokens emitidos.
+     */
+    void reset() {
+        tokens.clear();
+        carts.clear();
+        orders.clear();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring(PREFIX.length());
+            if ("OPTIONS".equals(method)) {
+                send(exchange, 204, null);
+            } else if ("POST".equals(method) && "/auth/login".equals(path)) {
+                login(exchange, readBody(exchange));
+            } else if ("POST".equals(method) && "/product/get-all-products".equals(path)) {
+                requireUser(exchange);
+                ObjectNode body = MAPPER.createObjectNode();
+                body.set("data", MAPPER.valueToTree(products));
+                body.put("count", products.size());
+                body.put("message", "All Products fetched Successfully");
+                send(exchange, 200, body);
+            } else if ("POST".equals(method) && "/user/add-to-cart".equals(path)) {
+                String userId = requireUser(exchange);
+                JsonNode product = readBody(exchange).get("product");
+                if (product == null || !product.has("_id")) {
+                    send(exchange, 400, message("Product is required"));
+                    return;
+                }
+                cart(userId).add(product);
+                send(exchange, 200, message("Product Added To Cart"));
+            } else if ("GET".equals(method) && path.startsWith("/user/get-cart-products/")) {
+                List<JsonNode> cart = cart(requireUser(exchange));
+                ObjectNode body = MAPPER.createObjectNode();
+                synchronized (cart) {
+                    body.set("products", MAPPER.valueToTree(cart));
+                    body.put("count", cart.size());
+                }
+                send(exchange, 200, body);
+            } else if ("DELETE".equals(method) && path.startsWith("/user/delete-product-from-cart/")) {
+                String productId = path.substring(path.lastIndexOf('/') + 1);
+                List<JsonNode> cart = cart(requireUser(exchange));
+                cart.removeIf(p -> productId.equals(p.path("_id").asText()));
+                send(exchange, 200, message("Product Removed from cart"));
+            } else if ("POST".equals(method) && "/order/create-order".equals(path)) {
+                createOrder(exchange, requireUser(exchange), readBody(exchange));
+            } else if ("GET".equals(method) && path.startsWith("/order/get-orders-for-customer/")) {
+                List<ObjectNode> mine = orders.getOrDefault(requireUser(exchange), Collections.emptyList());
+                ObjectNode body = MAPPER.createObjectNode();
+                synchronized (mine) {
+                    body.set("data", MAPPER.valueToTree(mine));
+                    body.put("count", mine.size());
+                }
+                body.put("message", "Orders fetched for customer Successfully");
+                send(exchange, 200, body);
+            } else {
+                send(exchange, 404, message("Not found: " + method + " " + path));
+            }
+        } catch (UnauthorizedException e) {
+            send(exchange, 401, message("Unauthorized"));
+        } catch (IOException e) {
+            if (exchange.getResponseCode() < 0) { // Cuerpo inválido; si ya se respondió, el cliente se fue
+                send(exchange, 400, message("Bad request: " + e.getMessage()));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void login(HttpExchange exchange, JsonNode body) throws IOException {
+        String email = body.path("userEmail").asText();
+        String password = body.path("userPassword").asText();
+        if (!password.equals(USERS.get(email))) {
+            send(exchange, 400, message("Incorrect email or password."));
+            return;
+        }
+        String userId = String.format("%024x", email.hashCode() & 0xffffffffL);
+        String token = token(email, userId);
+        tokens.put(token, userId);
+        ObjectNode response = message("Login Successfully");
+        response.put("token", token);
+        response.put("userId", userId);
+        send(exchange, 200, response);
+    }
+
+    private void createOrder(HttpExchange exchange, String userId, JsonNode body) throws IOException {
+        List<ObjectNode> mine = orders.computeIfAbsent(userId, k -> Collections.synchronizedList(new ArrayList<>()));
+        ArrayNode ids = MAPPER.createArrayNode();
+        ArrayNode productIds = MAPPER.createArrayNode();
+        for (JsonNode line : body.path("orders")) {
+            String productId = line.path("productOrderedId").asText();
+            ObjectNode product = findProduct(productId);
+            if (product == null) {
+                send(exchange, 400, message("Product not found: " + productId));
+                return;
+            }
+            ObjectNode order = MAPPER.createObjectNode();
+            order.put("_id", UUID.randomUUID().toString().replace("-", "").substring(0, 24));
+            order.put("orderById", userId);
+            order.put("productOrderedId", productId);
+            order.put("productName", product.path("productName").asText());
+            order.put("orderPrice", product.path("productPrice").asText());
+            order.put("country", line.path("country").asText());
+            order.put("createdAt", Instant.now().toString());
+            mine.add(order);
+            ids.add(order.get("_id"));
+            productIds.add(productId);
+        }
+        if (ids.size() == 0) {
+            send(exchange, 400, message("Orders are required"));
+            return;
+        }
+        cart(userId).clear(); // Como en la aplicación real, el carrito se vacía al comprar
+        ObjectNode response = message("Order Placed Successfully");
+        response.set("orders", ids);
+        response.set("productOrderId", productIds);
+        send(exchange, 201, response);
+    }
+
+    private ObjectNode findProduct(String productId) {
+        for (ObjectNode product : products) {
+            if (productId.equals(product.path("_id").asText())) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    private List<JsonNode> cart(String userId) {
+        return carts.computeIfAbsent(userId, k -> Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private String requireUser(HttpExchange exchange) {
+        String token = exchange.getRequestHeaders().getFirst("Authorization");
+        String userId = token == null ? null : tokens.get(token);
+        if (userId == null) {
+            throw new UnauthorizedException();
+        }
+        return userId;
+    }
+
+    private static String token(String email, String userId) {
+        long now = Instant.now().getEpochSecond();
+        ObjectNode payload = MAPPER.createObjectNode();
+        payload.put("_id", userId);
+        payload.put("userEmail", email);
+        payload.put("userRole", "customer");
+        payload.put("iat", now);
+        payload.put("exp", now + TOKEN_TTL_SECONDS);
+        payload.put("jti", UUID.randomUUID().toString()); // Un token distinto por login
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString("fixture".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode body = MAPPER.readTree(in);
+            return body == null || body.isMissingNode() ? MAPPER.createObjectNode() : body;
+        }
+    }
+
+    private static ObjectNode message(String message) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("message", message);
+        return node;
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "GET, POST, DELETE, OPTIONS");
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static final class UnauthorizedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnauthorizedException() {
+            super(null, null, false, false);
+        }
+    }
+}
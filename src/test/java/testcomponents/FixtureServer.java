@@ -0,0 +1,181 @@
+package testcomponents;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor HTTP embebido que sirve copias locales de las aplicaciones bajo prueba.
+ * <p>
+ * Sirve la tienda en {@code /client} (login, catálogo, carrito, checkout, confirmación y pedidos, ver
+ * {@code resources/fixtures/ecommerce.html}), su API falso en {@code /api/ecom} ({@link FakeShopApi}) y la
+ * cabecera de solotodo en {@code /solotodo/}. Con {@code -Dfixtures=true} el harness lo arranca una sola vez
+ * por JVM y redirige {@link abstractcomponents.AppUrls} hacia él, de modo que las suites no dependen de la red.
+ * <p>
+ * Configuración: {@code -Dfixtures.port} (por defecto 0, un puerto libre), {@code -Dfixtures.products}
+ * (productos adicionales en el catálogo, por defecto 0) y {@code -Dfixtures.dir} (directorio de las páginas).
+ */
+public final class FixtureServer {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureServer.class);
+
+    private static final String DEFAULT_FIXTURES_DIR =
+            System.getProperty("user.dir") + "/src/test/java/resources/fixtures";
+
+    private static FixtureServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FakeShopApi api;
+    private final byte[] ecommercePage;
+    private final byte[] solotodoPage;
+    private final LongAdder requests = new LongAdder();
+
+    private FixtureServer(int port, int extraProducts, Path fixturesDir) throws IOException {
+        this.ecommercePage = Files.readAllBytes(fixturesDir.resolve("ecommerce.html"));
+        this.solotodoPage = Files.readAllBytes(fixturesDir.resolve("solotodo.html"));
+        this.api = new FakeShopApi(extraProducts);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fixture-server-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(FakeShopApi.PREFIX, exchange -> {
+            requests.increment();
+            api.handle(exchange);
+        });
+        server.createContext("/client", exchange -> page(exchange, ecommercePage));
+        server.createContext("/solotodo", exchange -> page(exchange, solotodoPage));
+        server.createContext("/", this::root);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Arranca un servidor independiente (por ejemplo para benchmarks), sin tocar la configuración global.
+     *
+     * @param port          Puerto en el que escuchar, o 0 para uno libre.
+     * @param extraProducts Productos adicionales en el catálogo.
+     * @return El servidor arrancado; se detiene con {@link #stop()}.
+     * @throws IOException Si no se pueden leer las páginas o abrir el puerto.
+     */
+    public static FixtureServer start(int port, int extraProducts) throws IOException {
+        return new FixtureServer(port, extraProducts, Paths.get(System.getProperty("fixtures.dir", DEFAULT_FIXTURES_DIR)));
+    }
+
+    /**
+     * Si {@code -Dfixtures=true}, arranca (una sola vez por JVM) el servidor compartido y apunta
+     * {@code app.baseUrl} y {@code solotodo.url} a él. Si no, no hace nada.
+     *
+     * @return El servidor compartido, o null si los fixtures no están activados.
+     * @throws IOException Si no se puede arrancar el servidor.
+     */
+    public static synchronized FixtureServer startIfEnabled() throws IOException {
+        if (!Boolean.getBoolean("fixtures")) {
+            return null;
+        }
+        if (shared == null) {
+            shared = start(Integer.getInteger("fixtures.port", 0), Integer.getInteger("fixtures.products", 0));
+            System.setProperty("app.baseUrl", shared.getBaseUrl());
+            System.setProperty("solotodo.url", shared.getSolotodoUrl());
+            FixtureServer server = shared;
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "fixture-server-shutdown"));
+            log.info("Servidor de fixtures en {}", shared.getBaseUrl());
+        }
+        return shared;
+    }
+
+    /**
+     * @return Origen del servidor, por ejemplo {@code http://127.0.0.1:53211}.
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * @return URL de la copia de solotodo.
+     */
+    public String getSolotodoUrl() {
+        return getBaseUrl() + "/solotodo/";
+    }
+
+    /**
+     * Vacía el estado del API falso (carritos, pedidos y sesiones).
+     */
+    public void reset() {
+        api.reset();
+    }
+
+    /**
+     * @return Número de peticiones atendidas por el API falso.
+     */
+    public long getApiRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Detiene el servidor sin esperar a las peticiones en curso.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void root(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if ("/".equals(path)) {
+                exchange.getResponseHeaders().set("Location", "/client");
+                exchange.sendResponseHeaders(302, -1);
+            } else {
+                exchange.sendResponseHeaders("/favicon.ico".equals(path) ? 204 : 404, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Responde con una página; las rutas internas (por ejemplo {@code /client/dashboard/cart}) devuelven la misma
+     * página y es el propio cliente el que decide qué pantalla mostrar, como en la aplicación original.
+     */
+    private static void page(HttpExchange exchange, byte[] html) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, html.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(html);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package testcomponents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ordena las pruebas de cada {@code <test>} según el {@link TestHistoryStore}:
+ * <ol>
+ *     <li>primero las que fallaron en sus últimas ejecuciones, para saber cuanto antes si siguen rotas;</li>
+ *     <li>después el resto, de la más larga a la más corta (LPT), para que los hilos terminen a la vez.</li>
+ * </ol>
+ * Con {@code parallel="classes"} los hilos reciben clases enteras, así que se ordenan las clases por la suma de
+ * sus métodos y se mantienen juntos los métodos de cada clase. Las pruebas sin historial se estiman con la duración
+ * media de las conocidas; sin historial ninguno, el orden no cambia. Las dependencias ({@code dependsOnMethods})
+ * las sigue respetando TestNG.
+ * <p>
+ * Se desactiva con {@code -DhistoryOrder=false}.
+ */
+public class HistoryOrderInterceptor implements IMethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryOrderInterceptor.class);
+
+    // Resultados recientes en los que un fallo adelanta la prueba
+    private static final int RECENT_FAILURE_WINDOW = 3;
+
+    /**
+     * Estimación de una unidad planificable: un método o, con parallel="classes", una clase entera.
+     */
+    private static final class Unit {
+        private final List<IMethodInstance> methods = new ArrayList<>();
+        private double millis;
+        private boolean recentlyFailed;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if ("false".equalsIgnoreCase(System.getProperty("historyOrder")) || methods.size() < 2) {
+            return methods;
+        }
+        TestHistoryStore history = TestHistoryStore.getInstance();
+        double fallback = averageKnownMillis(methods, history);
+        if (Double.isNaN(fallback)) {
+            return methods; // Primera ejecución: no hay nada en qué basarse
+        }
+
+        XmlSuite.ParallelMode parallel = context.getCurrentXmlTest().getParallel();
+        boolean byClass = parallel == XmlSuite.ParallelMode.CLASSES || parallel == XmlSuite.ParallelMode.INSTANCES;
+        Map<Object, Unit> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            Unit unit = units.computeIfAbsent(byClass ? method.getRealClass() : instance, k -> new Unit());
+            TestHistoryStore.Stats stats = history.get(TestHistoryStore.key(method));
+            unit.methods.add(instance);
+            unit.millis += stats == null ? fallback : stats.getEstimatedMillis();
+            unit.recentlyFailed |= stats != null && stats.failedWithin(RECENT_FAILURE_WINDOW);
+        }
+
+        List<Unit> ordered = new ArrayList<>(units.values());
+        // Orden estable: a igualdad de estimación se conserva el orden de la suite
+        ordered.sort(Comparator.comparing((Unit u) -> !u.recentlyFailed)
+                .thenComparing(Comparator.comparingDouble((Unit u) -> u.millis).reversed()));
+        if (byClass) {
+            Comparator<IMethodInstance> longestFirst = Comparator.comparingDouble((IMethodInstance m) -> {
+                TestHistoryStore.Stats stats = history.get(TestHistoryStore.key(m.getMethod()));
+                return stats == null ? fallback : stats.getEstimatedMillis();
+            }).reversed();
+            ordered.forEach(unit -> unit.methods.sort(longestFirst));
+        }
+
+        List<IMethodInstance> result = new ArrayList<>(methods.size());
+        ordered.forEach(unit -> result.addAll(unit.methods));
+
+        // Dentro del <test> solo hay varios hilos con parallel methods, classes o instances
+        boolean parallelUnits = byClass || parallel == XmlSuite.ParallelMode.METHODS;
+        int threads = parallelUnits ? Math.max(1, context.getCurrentXmlTest().getThreadCount()) : 1;
+        if (units.size() > threads) { // Si todas las unidades caben a la vez, el orden no cambia la duración
+            log.info("Orden por historial de '{}' ({} hilos): duración estimada {} ms con el orden de la suite, {} ms con este orden",
+                    context.getName(), threads, (long) makespan(new ArrayList<>(units.values()), threads),
+                    (long) makespan(ordered, threads));
+        }
+        return result;
+    }
+
+    private static double averageKnownMillis(List<IMethodInstance> methods, TestHistoryStore history) {
+        double total = 0;
+        int known = 0;
+        for (IMethodInstance instance : methods) {
+            TestHistoryStore.Stats stats = history.get(TestHistoryStore.key(instance.getMethod()));
+            if (stats != null) {
+                total += stats.getEstimatedMillis();
+                known++;
+            }
+        }
+        return known == 0 ? Double.NaN : total / known;
+    }
+
+    /**
+     * Simula el reparto de las unidades, en este orden, entre {@code threads} hilos que toman la siguiente
+     * en cuanto quedan libres.
+     *
+     * @return El tiempo estimado hasta que termina el último hilo.
+     */
+    private static double makespan(List<Unit> units, int threads) {
+        PriorityQueue<Double> finish = new PriorityQueue<>();
+        for (int i = 0; i < threads; i++) {
+            finish.add(0d);
+        }
+        double end = 0;
+        for (Unit unit : units) {
+            double done = finish.poll() + unit.millis;
+            finish.add(done);
+            end = Math.max(end, done);
+        }
+        return end;
+    }
+}
@@ -1,15 +1,26 @@
 package testcomponents;
 
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
+import abstractcomponents.DriverContext;
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
-import resources.ExtentReporterNG;
+import org.testng.reporters.XMLReporter;
+import org.testng.xml.XmlSuite;
+import resources.AsyncReportWriter;
 
+import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Esta clase representa los listeners del plugin TESTNG
@@ -19,10 +30,14 @@ import java.io.IOException;
  * @version 1.0
  */
 
-public class Listeners extends BaseTest implements ITestListener {
-    ExtentTest test;
-    ExtentReports extent = ExtentReporterNG.getReportObject();
-    ThreadLocal <ExtentTest>extentTest = new ThreadLocal(); //ThreadSafe
+public class Listeners implements ITestListener, ISuiteListener, IReporter {
+    // Reporte compartido por toda la JVM; los eventos se escriben en segundo plano
+    AsyncReportWriter report = AsyncReportWriter.getInstance();
+    // Las capturas de los tests fallidos se codifican y escriben en segundo plano
+    ScreenshotPipeline screenshots = ScreenshotPipeline.getInstance();
+    // Resultados por prueba acumulados entre ejecuciones (inestabilidad y duraciones)
+    TestHistoryStore history = TestHistoryStore.getInstance();
+    ThreadLocal<Long> extentTest = new ThreadLocal<>(); //ThreadSafe
 
 
     /**
@@ -35,17 +50,43 @@ public class Listeners extends BaseTest implements ITestListener {
      */
     @Override
     public void onTestStart(ITestResult result) {
-       test =  extent.createTest(result.getMethod().getMethodName());//trae el resultado del nombre del metodo ( o en este caso el test)
-       extentTest.set(test);// Crea un ID unico por cada test, no se ua el TEST directamente porque si usamos solo el Test en si se sobreescribiria
+       long testId = report.startTest(testName(result));//trae el resultado del nombre del metodo ( o en este caso el test)
+       extentTest.set(testId);// Guarda el ID del test para este hilo, no se usa un campo compartido porque se sobreescribiria
     }
 
 
+    /**
+     * @return El nombre del test en el reporte: el del METODO o, en los escenarios de Cucumber, el del escenario.
+     */
+    private static String testName(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0 && parameters[0] instanceof PickleWrapper) {
+            return ((PickleWrapper) parameters[0]).getPickle().getName();
+        }
+        return result.getMethod().getMethodName();
+    }
+
     /**
      * Metodo para cuando los test son aprobados correctamente
      */
     @Override
     public void onTestSuccess(ITestResult result) {
-        extentTest.get().log(Status.PASS,"Test Passed Succesfully");
+        report.log(extentTest.get(), Status.PASS, "Test Passed Succesfully");
+        history.recordOutcome(result, true);
+        if (result.getEndMillis() - result.getStartMillis() > NetworkLayer.slowTestMillis()) {
+            attachNetworkWaterfall(); // Test lento: se adjunta su cascada de peticiones
+        }
+    }
+
+    /**
+     * Adjunta al reporte la cascada de peticiones de red de la prueba en curso, si el navegador tiene {@link NetworkLayer}.
+     */
+    private void attachNetworkWaterfall() {
+        NetworkLayer network = NetworkLayer.of(DriverContext.getDriver());
+        String waterfall = network == null ? null : network.waterfallMarkup();
+        if (waterfall != null) {
+            report.log(extentTest.get(), Status.INFO, waterfall);
+        }
     }
 
     /**
@@ -57,60 +98,50 @@ public class Listeners extends BaseTest implements ITestListener {
      */
     @Override
     public void onTestFailure(ITestResult result) {
-        // Obtener el objeto 'extentTest' del ThreadLocal actual y registrar la excepción.
-        extentTest.get() // Recupera el ID del Thread para asociarlo con el reporte.
-                .fail(result.getThrowable()); // Registra la causa de la falla en el informe.
+        // Obtener el ID del test del ThreadLocal actual y registrar la excepción.
+        report.fail(extentTest.get(), result.getThrowable()); // Registra la causa de la falla en el informe.
+        attachNetworkWaterfall(); // Peticiones de red de la prueba fallida
+        history.recordOutcome(result, false);
 
         // Imprimir el nombre del method que falló.
         System.out.println("Aquí falla el test: " + result.getMethod().getMethodName());
 
-        try {
-            System.out.println("Intentando crear el driver");
-
-            /**
-             * Obtener el objeto WebDriver reflejando el campo "driver" de la clase de prueba.
-             * Esto permite acceder al driver utilizado en el test fallido.
-             */
-            driver = (WebDriver) result.getTestClass() // Obtener la clase del test.
-                    .getRealClass()                    // Obtener la clase real (no el proxy).
-                    .getField("driver")                // Obtener el campo 'driver'.
-                    .get(result.getInstance());        // Obtener el valor del campo 'driver' de la instancia del test.
-
-        } catch (Exception e) {
-            e.printStackTrace(); // Imprime el error si no se puede acceder al driver.
+        // Obtener el WebDriver del hilo que ejecutó el test fallido (TestNG invoca el listener en ese mismo hilo).
+        WebDriver driver = DriverContext.getDriver();
+        if (driver == null) {
+            System.out.println("Screenshot no creado: el hilo no tiene un driver asociado");
+            return;
         }
 
-        String filePath = null; // Ruta donde se almacenará el screenshot.
-
         try {
-            System.out.println("Creando el screenshot");
-
-            /**
-             * Llama al method 'getScreenshoot' para capturar una imagen del estado actual del navegador.
-             *
-             * @param result.getMethod().getMethodName() Nombre del method de prueba fallido (para nombrar el archivo).
-             * @param driver Instancia de WebDriver que representa el navegador activo.
-             * @return Ruta del archivo de imagen capturado.
+            /*
+             * En el hilo de la prueba solo se obtienen los bytes de la captura (el driver se devuelve al pool justo después).
+             * La escritura a disco y el adjunto al reporte se hacen en segundo plano.
              */
-            filePath = getScreenshoot(result.getMethod().getMethodName(), driver);
-
-            System.out.println("Screenshot creado");
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            long testId = extentTest.get();
+            String title = result.getMethod().getMethodName();
+            screenshots.submit(screenshots.uniqueName(result), png)
+                    .thenAccept(filePath -> report.addScreenCapture(testId, filePath, title));
         } catch (Exception e) {
             e.printStackTrace(); // Imprime el error si no se pudo capturar el screenshot.
             System.out.println("Screenshot no creado");
         }
-
-        /**
-         * Adjunta el screenshot capturado al reporte de ExtentReports.
-         *
-         * @param filePath Ruta del screenshot capturado.
-         * @param result.getMethod().getMethodName() Nombre del method fallido.
-         */
-        extentTest.get().addScreenCaptureFromPath(filePath, result.getMethod().getMethodName());
     }
 
+    /**
+     * METODO que se ejecuta cuando un test se omite. Los intentos fallidos que {@link Retry} decidió repetir
+     * llegan aquí: se anota el reintento en el historial y su causa en el reporte.
+     *
+     * @param result Objeto ITestResult del intento omitido.
+     */
     @Override
     public void onTestSkipped(ITestResult result) {
+        if (result.wasRetried()) {
+            history.recordRetry(result);
+            report.log(extentTest.get(), Status.WARNING, "Reintento por fallo " + result.getAttribute(Retry.KIND_ATTRIBUTE)
+                    + ": " + result.getThrowable());
+        }
     }
 
     @Override
@@ -127,17 +158,58 @@ public class Listeners extends BaseTest implements ITestListener {
 
     /**
      * METODO que se ejecuta al finalizar la ejecución de todos los tests dentro del contexto.
-     * Se encarga de limpiar y guardar el reporte generado por ExtentReports.
+     * Solo solicita un guardado incremental del reporte; no bloquea al hilo que lo invoca.
      *
      * @param context Objeto ITestContext que proporciona información sobre el entorno de ejecución de las pruebas.
      */
     @Override
     public void onFinish(ITestContext context) {
-        // Guarda y limpia el reporte de ExtentReports, generando el archivo final.
-        extent.flush();
+        report.requestFlush();
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    /**
+     * METODO que se ejecuta al finalizar la suite.
+     * Espera a que se escriban todos los eventos pendientes, añade los percentiles de {@link StepTimings},
+     * guarda el {@link TestHistoryStore} y guarda el reporte final.
+     *
+     * @param suite La suite que acaba de terminar.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        screenshots.awaitIdle(30, TimeUnit.SECONDS); // Las capturas pendientes se adjuntan antes del guardado final
+
+        // Percentiles de latencia por comando y por método de página: JSON y sección en el reporte
+        try {
+            File timingsDir = ShardInterceptor.isSharded() ? ShardInterceptor.outputDir() : new File(BaseTest.reportsPath);
+            StepTimings.writeJson(new File(timingsDir, "step-timings.json"));
+        } catch (IOException e) {
+            System.out.println("No se pudo escribir step-timings.json: " + e.getMessage());
+        }
+        report.submit(StepTimings::addToReport);
+
+        // Historial de resultados entre ejecuciones y ranking de pruebas inestables
+        history.save();
+        report.submit(history::addToReport);
+        report.flushAndWait(Duration.ofSeconds(30));
 
         // Mensaje de confirmación en la consola al finalizar el proceso.
-        System.out.println("Extent creado al finalizar");
+        System.out.println("Extent creado al finalizar (" + report + ")");
+    }
+
+    /**
+     * METODO que se ejecuta al terminar todas las suites. En una ejecución repartida ({@code -Dshard=i/n})
+     * guarda el {@code testng-results.xml} de esta partición en su directorio, para que {@link ShardMerger} lo una
+     * con los de las demás.
+     */
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        if (ShardInterceptor.isSharded()) {
+            new XMLReporter().generateReport(xmlSuites, suites, ShardInterceptor.outputDir().getPath());
+        }
     }
 
 }
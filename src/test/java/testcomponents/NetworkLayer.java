@@ -0,0 +1,545 @@
+package testcomponents;
+
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Capa de red sobre Chrome DevTools Protocol para navegadores Chromium.
+ * <p>
+ * Usa el {@link NetworkInterceptor} de Selenium, que elige la versión de CDP adecuada para el navegador, para:
+ * <ul>
+ *     <li>bloquear las URLs que coinciden con los patrones de {@code NetworkRules.properties} (analítica,
+ *     publicidad...) respondiendo 204 sin salir a la red;</li>
+ *     <li>servir los recursos estáticos (css, js, fuentes, imágenes) desde una caché en disco compartida entre
+ *     sesiones y ejecuciones ({@code -Dnetwork.cacheDir}, por defecto {@code .network-cache}). Cada entrada vale
+ *     {@code cacheTtlMinutes}; pasado ese tiempo se revalida con el servidor ({@code If-None-Match} /
+ *     {@code If-Modified-Since}) o se vuelve a descargar, para no servir versiones antiguas de la aplicación;</li>
+ *     <li>registrar la duración de cada petición para poder adjuntar la cascada de un test lento o fallido.</li>
+ * </ul>
+ * Se desactiva con {@code -Dnetwork=false}; si el navegador no admite CDP, la sesión sigue sin esta capa.
+ */
+public final class NetworkLayer {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkLayer.class);
+
+    private static final String RULES_PATH =
+            System.getProperty("user.dir") + "/src/test/java/resources/NetworkRules.properties";
+    private static final Path CACHE_DIR =
+            Paths.get(System.getProperty("network.cacheDir", System.getProperty("user.dir") + "/.network-cache"));
+
+    // Peticiones guardadas por sesión; las más antiguas se descartan
+    private static final int MAX_ENTRIES = 2000;
+
+    // Cabeceras CORS de la respuesta original que se reproducen al servir desde la caché
+    private static final List<String> CORS_HEADERS = Arrays.asList("Access-Control-Allow-Origin",
+            "Access-Control-Allow-Credentials", "Access-Control-Expose-Headers", "Timing-Allow-Origin", "Vary");
+    // Versión del formato de los .meta; las entradas de otra versión se vuelven a descargar
+    private static final String CACHE_FORMAT = "2";
+
+    // Capa de cada navegador (clave: el driver tal como lo ven las pruebas)
+    private static final Map<WebDriver, NetworkLayer> LAYERS = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final LongAdder BLOCKED = new LongAdder();
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_WRITES = new LongAdder();
+    private static final LongAdder REVALIDATED = new LongAdder();
+    private static final LongAdder FORWARDED = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (FORWARDED.sum() + BLOCKED.sum() + CACHE_HITS.sum() > 0) {
+                log.info("NetworkLayer: forwarded={}, blocked={}, cacheHits={}, revalidated={}, cacheWrites={}",
+                        FORWARDED.sum(), BLOCKED.sum(), CACHE_HITS.sum(), REVALIDATED.sum(), CACHE_WRITES.sum());
+            }
+        }, "network-layer-summary"));
+    }
+
+    private final NetworkInterceptor interceptor;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private volatile long markMillis;
+
+    /**
+     * Una petición registrada.
+     */
+    public static final class Entry {
+        private final long startMillis;
+        private final long durationMillis;
+        private final String method;
+        private final String url;
+        private final int status;
+        private final String source;
+
+        Entry(long startMillis, long durationMillis, String method, String url, int status, String source) {
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.source = source;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return "network", "cache", "revalidated" (el servidor confirmó la copia en caché) o "blocked".
+         */
+        public String getSource() {
+            return source;
+        }
+    }
+
+    /**
+     * Reglas leídas de {@code NetworkRules.properties}.
+     */
+    private static final class Rules {
+        private final List<Pattern> block = new ArrayList<>();
+        private final Set<String> cacheExtensions = new HashSet<>();
+        private final long cacheTtlMillis;
+        private final long slowTestMillis;
+
+        private Rules(Properties properties) {
+            for (String pattern : properties.getProperty("block", "").split(",")) {
+                if (!pattern.trim().isEmpty()) {
+                    block.add(glob(pattern.trim()));
+                }
+            }
+            for (String extension : properties.getProperty("cacheExtensions", "").split(",")) {
+                if (!extension.trim().isEmpty()) {
+                    cacheExtensions.add(extension.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+            cacheTtlMillis = TimeUnit.MINUTES.toMillis(Long.parseLong(properties.getProperty("cacheTtlMinutes", "60").trim()));
+            slowTestMillis = Long.parseLong(properties.getProperty("slowTestMillis", "30000").trim());
+        }
+
+        private static Pattern glob(String glob) {
+            StringBuilder regex = new StringBuilder();
+            String[] parts = glob.split("\\*", -1);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                if (!parts[i].isEmpty()) {
+                    regex.append(Pattern.quote(parts[i]));
+                }
+            }
+            return Pattern.compile(regex.toString());
+        }
+
+        private boolean blocks(String url) {
+            for (Pattern pattern : block) {
+                if (pattern.matcher(url).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean caches(HttpRequest request) {
+            if (request.getMethod() != HttpMethod.GET) {
+                return false;
+            }
+            String path;
+            try {
+                path = URI.create(request.getUri()).getPath();
+            } catch (IllegalArgumentException e) {
+                return false; // URL que no se puede analizar: no se cachea
+            }
+            int dot = path == null ? -1 : path.lastIndexOf('.');
+            return dot >= 0 && cacheExtensions.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Una entrada de la caché en disco: el cuerpo y sus metadatos (tipo, validadores, fecha de guardado).
+     */
+    private static final class Cached {
+        private final Properties meta;
+        private final byte[] body;
+
+        private Cached(Properties meta, byte[] body) {
+            this.meta = meta;
+            this.body = body;
+        }
+
+        private boolean isFresh(long ttlMillis) {
+            long storedAt = Long.parseLong(meta.getProperty("storedAt", "0"));
+            return System.currentTimeMillis() - storedAt < ttlMillis;
+        }
+
+        private boolean hasValidators() {
+            return meta.getProperty("etag") != null || meta.getProperty("lastModified") != null;
+        }
+
+        /**
+         * Convierte la petición en condicional: el servidor responde 304 si la copia sigue siendo válida.
+         */
+        private void addValidators(HttpRequest request) {
+            String etag = meta.getProperty("etag");
+            if (etag != null) {
+                request.setHeader("If-None-Match", etag);
+            }
+            String lastModified = meta.getProperty("lastModified");
+            if (lastModified != null) {
+                request.setHeader("If-Modified-Since", lastModified);
+            }
+        }
+
+        private HttpResponse toResponse() {
+            HttpResponse response = new HttpResponse().setStatus(200);
+            String contentType = meta.getProperty("contentType");
+            if (contentType != null) {
+                response.setHeader("Content-Type", contentType);
+            }
+            for (String header : CORS_HEADERS) {
+                String value = meta.getProperty("header." + header);
+                if (value != null) {
+                    response.setHeader(header, value);
+                }
+            }
+            response.setContent(Contents.bytes(body));
+            return response;
+        }
+    }
+
+    private NetworkLayer(WebDriver driver) {
+        this.interceptor = new NetworkInterceptor(driver, (Filter) this::handle);
+    }
+
+    /**
+     * Conecta la capa de red al navegador recién creado, antes de decorarlo.
+     *
+     * @param driver El navegador sin decorar.
+     * @return La capa conectada, o null si está desactivada o el navegador no admite CDP.
+     */
+    public static NetworkLayer attach(WebDriver driver) {
+        if ("false".equalsIgnoreCase(System.getProperty("network")) || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            rules();
+            return new NetworkLayer(driver);
+        } catch (RuntimeException e) {
+            log.warn("Capa de red no disponible para este navegador: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Asocia la capa al driver que usan las pruebas (el decorado), para encontrarla desde los listeners.
+     */
+    public static void bind(WebDriver driver, NetworkLayer layer) {
+        if (layer != null) {
+            LAYERS.put(driver, layer);
+        }
+    }
+
+    /**
+     * Desasocia y desconecta la capa del driver antes de cerrarlo, para no retener la sesión descartada.
+     * Si el navegador ya no responde, la capa se desasocia igualmente.
+     */
+    public static void unbind(WebDriver driver) {
+        NetworkLayer layer = driver == null ? null : LAYERS.remove(driver);
+        if (layer == null) {
+            return;
+        }
+        try {
+            layer.close();
+        } catch (RuntimeException e) {
+            log.debug("No se pudo desconectar la capa de red: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return La capa del navegador indicado, o null si no tiene.
+     */
+    public static NetworkLayer of(WebDriver driver) {
+        return driver == null ? null : LAYERS.get(driver);
+    }
+
+    /**
+     * Marca el inicio de una prueba: {@link #entriesSinceMark()} devuelve solo las peticiones posteriores.
+     */
+    public void mark() {
+        markMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Las peticiones iniciadas desde el último {@link #mark()}, por orden de inicio.
+     */
+    public List<Entry> entriesSinceMark() {
+        List<Entry> result = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                if (entry.startMillis >= markMillis) {
+                    result.add(entry);
+                }
+            }
+        }
+        result.sort((a, b) -> Long.compare(a.startMillis, b.startMillis));
+        return result;
+    }
+
+    /**
+     * @return Umbral a partir del cual un test se considera lento (de {@code NetworkRules.properties}).
+     */
+    public static long slowTestMillis() {
+        return rules().slowTestMillis;
+    }
+
+    /**
+     * Tabla HTML con la cascada de peticiones de la prueba en curso, para el reporte.
+     *
+     * @return El HTML de la tabla, o null si no hay peticiones registradas.
+     */
+    public String waterfallMarkup() {
+        List<Entry> list = entriesSinceMark();
+        if (list.isEmpty()) {
+            return null;
+        }
+        long origin = list.get(0).startMillis;
+        String[][] table = new String[list.size() + 1][];
+        table[0] = new String[]{"inicio ms", "duración ms", "estado", "origen", "método", "url"};
+        for (int i = 0; i < list.size(); i++) {
+            Entry e = list.get(i);
+            String url = e.url.length() > 120 ? e.url.substring(0, 117) + "..." : e.url;
+            table[i + 1] = new String[]{String.valueOf(e.startMillis - origin), String.valueOf(e.durationMillis),
+                    String.valueOf(e.status), e.source, e.method, url};
+        }
+        return MarkupHelper.createTable(table).getMarkup();
+    }
+
+    /**
+     * Desconecta la capa del navegador.
+     */
+    public void close() {
+        interceptor.close();
+    }
+
+    private HttpHandler handle(HttpHandler next) {
+        return request -> {
+            long start = System.currentTimeMillis();
+            String url = request.getUri();
+            Rules r = rules();
+
+            if (r.blocks(url)) {
+                BLOCKED.increment();
+                record(start, request, 204, "blocked");
+                return new HttpResponse().setStatus(204);
+            }
+
+            boolean cacheable = r.caches(request);
+            Cached cached = cacheable ? readCache(url) : null;
+            if (cached != null) {
+                if (cached.isFresh(r.cacheTtlMillis)) {
+                    CACHE_HITS.increment();
+                    record(start, request, 200, "cache");
+                    return cached.toResponse();
+                }
+                if (cached.hasValidators()) {
+                    cached.addValidators(request);
+                }
+            }
+
+            FORWARDED.increment();
+            HttpResponse response = next.execute(request);
+            if (cached != null && response.getStatus() == 304) {
+                // La copia sigue siendo válida: se sirve y vuelve a valer cacheTtlMinutes
+                REVALIDATED.increment();
+                touchCache(url, cached);
+                record(start, request, 304, "revalidated");
+                return cached.toResponse();
+            }
+            record(start, request, response.getStatus(), "network");
+            if (cacheable && response.getStatus() == 200 && !noStore(response)) {
+                writeCache(url, response);
+            }
+            return response;
+        };
+    }
+
+    private void record(long start, HttpRequest request, int status, String source) {
+        Entry entry = new Entry(start, System.currentTimeMillis() - start, request.getMethod().toString(),
+                request.getUri(), status, source);
+        synchronized (entries) {
+            entries.addLast(entry);
+            if (entries.size() > MAX_ENTRIES) {
+                entries.removeFirst();
+            }
+        }
+    }
+
+    private static boolean noStore(HttpResponse response) {
+        String cacheControl = response.getHeader("Cache-Control");
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store");
+    }
+
+    private static Cached readCache(String url) {
+        Path body = CACHE_DIR.resolve(key(url) + ".body");
+        Path meta = CACHE_DIR.resolve(key(url) + ".meta");
+        if (!Files.isRegularFile(body) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(meta)) {
+                properties.load(in);
+            }
+            if (!CACHE_FORMAT.equals(properties.getProperty("format"))) {
+                return null; // Guardada sin las cabeceras CORS: se vuelve a descargar
+            }
+            return new Cached(properties, Files.readAllBytes(body));
+        } catch (IOException e) {
+            return null; // Entrada incompleta o corrupta: se vuelve a descargar
+        }
+    }
+
+    private static void writeCache(String url, HttpResponse response) {
+        try {
+            Files.createDirectories(CACHE_DIR);
+            String key = key(url);
+            byte[] bytes = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(bytes)); // El contenido original solo se puede leer una vez
+
+            Properties properties = new Properties();
+            properties.setProperty("format", CACHE_FORMAT);
+            properties.setProperty("url", url);
+            putIfPresent(properties, "contentType", response.getHeader("Content-Type"));
+            putIfPresent(properties, "etag", response.getHeader("ETag"));
+            putIfPresent(properties, "lastModified", response.getHeader("Last-Modified"));
+            for (String header : CORS_HEADERS) {
+                putIfPresent(properties, "header." + header, response.getHeader(header));
+            }
+            properties.setProperty("storedAt", String.valueOf(System.currentTimeMillis()));
+            // Se escribe a un temporal y se mueve, para que otra sesión nunca lea un archivo a medias
+            Path bodyTmp = Files.createTempFile(CACHE_DIR, key, ".tmp");
+            Files.write(bodyTmp, bytes);
+            Files.move(bodyTmp, CACHE_DIR.resolve(key + ".body"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeMeta(key, properties);
+            CACHE_WRITES.increment();
+        } catch (IOException e) {
+            log.debug("No se pudo guardar en caché {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Renueva la fecha de guardado de una entrada que el servidor confirmó con 304.
+     */
+    private static void touchCache(String url, Cached cached) {
+        cached.meta.setProperty("storedAt", String.valueOf(System.currentTimeMillis()));
+        try {
+            writeMeta(key(url), cached.meta);
+        } catch (IOException e) {
+            log.debug("No se pudo renovar la entrada de caché {}: {}", url, e.getMessage());
+        }
+    }
+
+    private static void writeMeta(String key, Properties properties) throws IOException {
+        Path metaTmp = Files.createTempFile(CACHE_DIR, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(metaTmp)) {
+            properties.store(out, null);
+        }
+        Files.move(metaTmp, CACHE_DIR.resolve(key + ".meta"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putIfPresent(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Las reglas se leen la primera vez que se piden (al conectar la primera capa) y después se consultan en cada
+     * petición interceptada sin ningún bloqueo.
+     */
+    private static Rules rules() {
+        return RulesHolder.RULES;
+    }
+
+    private static final class RulesHolder {
+        private static final Rules RULES = load();
+
+        private static Rules load() {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(RULES_PATH)) {
+                properties.load(in);
+            } catch (IOException e) {
+                log.warn("No se pudo leer {}: la capa de red no bloqueará ni cacheará nada", RULES_PATH);
+            }
+            return new Rules(properties);
+        }
+    }
+
+    public static long getBlocked() {
+        return BLOCKED.sum();
+    }
+
+    public static long getCacheHits() {
+        return CACHE_HITS.sum();
+    }
+
+    public static long getCacheWrites() {
+        return CACHE_WRITES.sum();
+    }
+}
@@ -1,15 +1,40 @@
 package testcomponents;
 
+import abstractcomponents.DriverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Implementación de la interfaz IRetryAnalyzer de TestNG.
- * Esta clase permite reintentar un test en caso de que falle,
- * con un número máximo de intentos configurado.
+ * Solo reintenta los fallos que {@link FailureClassifier} considera transitorios (esperas agotadas, elementos
+ * obsoletos, sesión del navegador perdida); una aserción que falla no se repite.
+ * Entre intentos espera un tiempo que se duplica en cada reintento. La espera no se hace aquí, sino al pedir el
+ * navegador del siguiente intento ({@link #awaitBackoff()}): TestNG consulta el reintento antes del
+ * {@code @AfterMethod}, así que esperar aquí retendría el navegador (y su hueco en el {@link DriverPool}).
+ * <p>
+ * Configuración: {@code -Dretry.max} (intentos extra, por defecto 2), {@code -Dretry.backoffMillis} (primera
+ * espera, por defecto 500) y {@code -Dretry.freshDriver=true} para reintentar siempre con un navegador nuevo
+ * (si se perdió la sesión se hace siempre).
  */
 public class Retry implements IRetryAnalyzer {
 
+    private static final Logger log = LoggerFactory.getLogger(Retry.class);
+
+    // Espera máxima entre intentos
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+
+    // Momento (System.nanoTime) a partir del cual el hilo puede empezar el siguiente intento
+    private static final ThreadLocal<Long> RETRY_NOT_BEFORE = new ThreadLocal<>();
+
+    /**
+     * Atributo del resultado reintentado con el tipo de fallo ({@link FailureClassifier.Kind}).
+     */
+    public static final String KIND_ATTRIBUTE = "retry.kind";
+
     /**
      * Contador de intentos realizados. Se incrementa cada vez que un test falla
      * y se vuelve a ejecutar.
@@ -17,28 +42,61 @@ public class Retry implements IRetryAnalyzer {
     int count = 0;
 
     /**
-     * Número máximo de intentos permitidos. En este caso, el test se reintentará
-     * hasta 2 veces en caso de fallo.
+     * Número máximo de intentos permitidos. Por defecto el test se reintentará
+     * hasta 2 veces en caso de fallo transitorio.
      */
-    int maxTry = 2;
+    int maxTry = Integer.getInteger("retry.max", 2);
+
+    long backoffMillis = Long.getLong("retry.backoffMillis", 500);
+
+    boolean freshDriver = Boolean.getBoolean("retry.freshDriver");
 
     /**
      * Este METODO es invocado por TestNG para determinar si se debe reintentar la ejecución de un test.
      *
      * @param result El objeto ITestResult que contiene información sobre el test actual.
      * @return {@code true} si el test debe ser reintentado, {@code false} si no debe reintentarse.
-     *         El test se reintentará si el número de intentos no ha alcanzado el máximo permitido.
+     *         El test se reintentará si el fallo es transitorio y no se ha alcanzado el máximo de intentos.
      */
     @Override
     public boolean retry(ITestResult result) {
-        // Si el número de intentos es menor que el máximo permitido
-        if (count < maxTry) {
-            // Incrementar el contador de intentos
-            count++;
-            // Indicar que el test debe reintentarse
-            return true;
+        FailureClassifier.Kind kind = FailureClassifier.classify(result.getThrowable());
+        // Un fallo determinista daría el mismo resultado: no se gasta otro navegador en repetirlo
+        if (!kind.isRetryable() || count >= maxTry) {
+            return false;
+        }
+        count++;
+        result.setAttribute(KIND_ATTRIBUTE, kind.name());
+
+        // El navegador actual vuelve al pool cerrado en vez de limpio; el reintento recibe uno nuevo
+        if (kind == FailureClassifier.Kind.SESSION_LOST || freshDriver) {
+            DriverPool.getInstance().discardOnRelease(DriverContext.getDriver());
+        }
+
+        long wait = Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(count - 1, 20));
+        log.info("Reintento {}/{} de {} ({}) en {} ms", count, maxTry, result.getMethod().getMethodName(), kind, wait);
+        RETRY_NOT_BEFORE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wait));
+        return true;
+    }
+
+    /**
+     * Espera lo que quede del back-off del último reintento de este hilo, si lo hay. Se llama antes de pedir el
+     * navegador al pool, cuando el intento anterior ya devolvió el suyo.
+     */
+    public static void awaitBackoff() {
+        Long notBefore = RETRY_NOT_BEFORE.get();
+        if (notBefore == null) {
+            return;
+        }
+        RETRY_NOT_BEFORE.remove();
+        long remaining = notBefore - System.nanoTime();
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando para reintentar", e);
+            }
         }
-        // Si se ha alcanzado el número máximo de intentos, no reintentar
-        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package testcomponents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Procesa las capturas de pantalla de los tests fallidos fuera del hilo de la prueba.
+ * <p>
+ * El hilo de la prueba solo obtiene los bytes PNG del navegador; la codificación, el redimensionado opcional
+ * y la escritura a disco se hacen en un pool acotado en segundo plano. Si el pool está saturado, la captura
+ * se procesa en el hilo que la entrega (contrapresión en lugar de acumular memoria sin límite).
+ * Las capturas idénticas (mismo hash SHA-256) se escriben una sola vez.
+ * <p>
+ * Configuración: {@code -Dscreenshot.format=png|jpg}, {@code -Dscreenshot.scale} (0..1, por defecto 1)
+ * y {@code -Dscreenshot.quality} (calidad JPEG, por defecto 0.8).
+ */
+public final class ScreenshotPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenshotPipeline.class);
+
+    private static final ScreenshotPipeline INSTANCE = new ScreenshotPipeline(
+            BaseTest.reportsPath,
+            System.getProperty("screenshot.format", "png"),
+            Double.parseDouble(System.getProperty("screenshot.scale", "1.0")),
+            Float.parseFloat(System.getProperty("screenshot.quality", "0.8")));
+
+    private final String outputDir;
+    private final String format;
+    private final double scale;
+    private final float quality;
+    private final ThreadPoolExecutor executor;
+
+    // Hash de la imagen -> ruta donde ya se escribió
+    private final Map<String, CompletableFuture<String>> written = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    ScreenshotPipeline(String outputDir, String format, double scale, float quality) {
+        this.outputDir = outputDir;
+        this.format = "jpg".equalsIgnoreCase(format) || "jpeg".equalsIgnoreCase(format) ? "jpg" : "png";
+        this.scale = scale > 0 && scale < 1 ? scale : 1.0;
+        this.quality = quality;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), r -> {
+            Thread t = new Thread(r, "screenshot-writer-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitIdle(30, TimeUnit.SECONDS), "screenshot-shutdown"));
+    }
+
+    /**
+     * @return El pipeline compartido por toda la JVM.
+     */
+    public static ScreenshotPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Genera un nombre único para la captura de una invocación concreta de un test,
+     * de modo que los reintentos y las filas de un DataProvider no se sobrescriban entre sí.
+     *
+     * @param result El resultado del test.
+     * @return Nombre base del archivo, sin extensión.
+     */
+    public String uniqueName(ITestResult result) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        int params = Arrays.deepHashCode(result.getParameters());
+        return result.getMethod().getMethodName()
+                + "_" + Integer.toHexString(params)
+                + "_" + timestamp
+                + "_" + sequence.incrementAndGet();
+    }
+
+    /**
+     * Encola una captura para escribirla en segundo plano.
+     *
+     * @param name Nombre base del archivo, sin extensión.
+     * @param png  Bytes PNG tal como los devuelve el navegador.
+     * @return Un futuro con la ruta del archivo escrito (o de la captura idéntica escrita antes).
+     */
+    public CompletableFuture<String> submit(String name, byte[] png) {
+        submitted.increment();
+        bytesIn.add(png.length);
+        return CompletableFuture.supplyAsync(() -> process(name, png), executor).thenCompose(f -> f);
+    }
+
+    /**
+     * Espera a que se terminen de escribir todas las capturas encoladas.
+     *
+     * @return true si el pool quedó libre dentro del tiempo indicado.
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CompletableFuture<String> process(String name, byte[] png) {
+        String hash = sha256(png);
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = written.putIfAbsent(hash, mine);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing;
+        }
+        try {
+            File file = new File(outputDir, name + "." + format);
+            byte[] encoded = encode(png);
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), encoded);
+            bytesOut.add(encoded.length);
+            mine.complete(file.getPath());
+        } catch (IOException | RuntimeException e) {
+            written.remove(hash, mine);
+            log.warn("No se pudo escribir la captura {}: {}", name, e.getMessage());
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    /**
+     * Re-codifica la captura solo cuando hace falta (redimensionar o convertir a JPEG);
+     * en caso contrario escribe los bytes PNG originales sin decodificarlos.
+     */
+    byte[] encode(byte[] png) throws IOException {
+        if (scale == 1.0 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height,
+                "jpg".equals(format) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("jpg".equals(format)) {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(ios);
+                writer.write(null, new IIOImage(target, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        } else {
+            ImageIO.write(target, "png", out);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "submitted=" + submitted.sum()
+                + ", deduplicated=" + deduplicated.sum()
+                + ", bytesIn=" + bytesIn.sum()
+                + ", bytesOut=" + bytesOut.sum()
+                + ", pending=" + executor.getQueue().size();
+    }
+}
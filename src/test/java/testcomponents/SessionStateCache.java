@@ -0,0 +1,250 @@
+package testcomponents;
+
+import abstractcomponents.AdaptiveWait;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché de sesiones autenticadas por credenciales.
+ * <p>
+ * La primera prueba que inicia sesión con un par usuario/contraseña lo hace por la interfaz; a continuación se
+ * capturan las cookies y el contenido de localStorage (donde la aplicación guarda el token) junto con la URL del
+ * catálogo. Las siguientes pruebas con las mismas credenciales inyectan ese estado en su navegador y abren el
+ * catálogo directamente. La sesión se invalida cuando expira el token (campo {@code exp} del JWT), cuando vence
+ * el TTL ({@code -Dsession.ttlMinutes}, por defecto 30) o cuando la aplicación la rechaza y vuelve al login.
+ */
+public final class SessionStateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionStateCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("session.ttlMinutes", 30));
+    // Margen para no reutilizar un token que está a punto de expirar
+    private static final long EXPIRY_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final String READ_STORAGE_SCRIPT =
+            "var items = {};"
+            + "for (var i = 0; i < window.localStorage.length; i++) {"
+            + "  var key = window.localStorage.key(i);"
+            + "  items[key] = window.localStorage.getItem(key);"
+            + "}"
+            + "return items;";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var items = arguments[0];"
+            + "for (var key in items) { window.localStorage.setItem(key, items[key]); }";
+
+    // Devuelve qué pantalla se ha cargado tras inyectar la sesión
+    private static final String PAGE_PROBE_SCRIPT =
+            "if (document.querySelector('.mb-3')) { return 'catalogue'; }"
+            + "if (document.querySelector('#userEmail')) { return 'login'; }"
+            + "return null;";
+
+    private static final Map<String, SessionState> SESSIONS = new ConcurrentHashMap<>();
+    // ReentrantLock y no synchronized: el inicio de sesión por la interfaz tarda segundos y fijaría los hilos
+    // virtuales que esperan su turno
+    private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder INVALIDATIONS = new LongAdder();
+
+    private SessionStateCache() {
+    }
+
+    /**
+     * Estado capturado de una sesión iniciada.
+     */
+    static final class SessionState {
+        private final Map<String, String> localStorage;
+        private final Set<Cookie> cookies;
+        private final String landingUrl;
+        private final long expiresAt;
+
+        SessionState(Map<String, String> localStorage, Set<Cookie> cookies, String landingUrl, long expiresAt) {
+            this.localStorage = localStorage;
+            this.cookies = cookies;
+            this.landingUrl = landingUrl;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() + EXPIRY_MARGIN_MILLIS >= expiresAt;
+        }
+    }
+
+    /**
+     * Acción de inicio de sesión por la interfaz; debe dejar el navegador en la página del catálogo.
+     */
+    @FunctionalInterface
+    public interface UiLogin {
+        /**
+         * @param navigate true si antes hay que volver a abrir la página de login
+         *                 (porque un intento de reutilizar la sesión dejó el navegador en otra página).
+         */
+        void login(boolean navigate);
+    }
+
+    /**
+     * Abre una sesión autenticada en el navegador indicado, reutilizando el estado cacheado si existe
+     * y sigue siendo válido, o iniciando sesión por la interfaz en caso contrario.
+     * El navegador debe estar ya en el origen de la aplicación (por ejemplo tras {@code LandingPage.goTo()}).
+     *
+     * @param driver   El navegador de la prueba.
+     * @param email    Correo del usuario.
+     * @param password Contraseña del usuario.
+     * @param uiLogin  Inicio de sesión por la interfaz, usado cuando no hay sesión reutilizable.
+     * @return true si se reutilizó una sesión cacheada, false si se inició sesión por la interfaz.
+     * @throws InterruptedException Si el hilo se interrumpe durante la espera del catálogo.
+     */
+    public static boolean open(WebDriver driver, String email, String password, UiLogin uiLogin) throws InterruptedException {
+        String key = email + '\u0000' + password;
+        boolean navigated = false;
+        SessionState state = SESSIONS.get(key);
+        if (state != null && !state.isExpired()) {
+            if (tryRestore(driver, state)) {
+                HITS.increment();
+                return true;
+            }
+            navigated = true;
+        }
+        if (state != null) {
+            invalidate(key, state);
+        }
+
+        // Un solo hilo inicia sesión por credenciales; los demás esperan y reutilizan su estado
+        ReentrantLock lock = LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            state = SESSIONS.get(key);
+            if (state != null && !state.isExpired()) {
+                if (tryRestore(driver, state)) {
+                    HITS.increment();
+                    return true;
+                }
+                navigated = true;
+                invalidate(key, state);
+            }
+            MISSES.increment();
+            if (navigated) {
+                clearState(driver); // Se descarta el estado inyectado que la aplicación rechazó
+            }
+            uiLogin.login(navigated);
+            SESSIONS.put(key, capture(driver));
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina todas las sesiones cacheadas.
+     */
+    public static void clear() {
+        SESSIONS.clear();
+    }
+
+    private static void invalidate(String key, SessionState state) {
+        if (SESSIONS.remove(key, state)) {
+            INVALIDATIONS.increment();
+        }
+    }
+
+    private static boolean tryRestore(WebDriver driver, SessionState state) throws InterruptedException {
+        try {
+            for (Cookie cookie : state.cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, state.localStorage);
+            driver.get(state.landingUrl);
+            Object page = new AdaptiveWait(driver).until("sessionRestore", Duration.ofSeconds(10),
+                    d -> ((JavascriptExecutor) d).executeScript(PAGE_PROBE_SCRIPT));
+            return "catalogue".equals(page);
+        } catch (WebDriverException e) {
+            log.debug("No se pudo reutilizar la sesión cacheada: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void clearState(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear();");
+        } catch (WebDriverException e) {
+            log.debug("No se pudo limpiar la sesión rechazada: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SessionState capture(WebDriver driver) {
+        Map<String, String> storage = new HashMap<>();
+        Object items = ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        if (items instanceof Map) {
+            ((Map<String, Object>) items).forEach((k, v) -> storage.put(k, v == null ? null : String.valueOf(v)));
+        }
+        Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+
+        long expiresAt = System.currentTimeMillis() + TTL_MILLIS;
+        for (String value : storage.values()) {
+            expiresAt = Math.min(expiresAt, jwtExpiry(value));
+        }
+        for (Cookie cookie : cookies) {
+            Date expiry = cookie.getExpiry();
+            if (expiry != null) {
+                expiresAt = Math.min(expiresAt, expiry.getTime());
+            }
+        }
+        return new SessionState(storage, cookies, driver.getCurrentUrl(), expiresAt);
+    }
+
+    /**
+     * @return La expiración (en milisegundos) si el valor es un JWT con campo {@code exp}; Long.MAX_VALUE en otro caso.
+     */
+    static long jwtExpiry(String value) {
+        if (value == null) {
+            return Long.MAX_VALUE;
+        }
+        String[] parts = value.split("\\.");
+        if (parts.length != 3) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp = MAPPER.readTree(new String(payload, StandardCharsets.UTF_8)).get("exp");
+            return exp != null && exp.canConvertToLong() ? TimeUnit.SECONDS.toMillis(exp.asLong()) : Long.MAX_VALUE;
+        } catch (Exception e) {
+            return Long.MAX_VALUE; // No es un JWT
+        }
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    public static long getInvalidations() {
+        return INVALIDATIONS.sum();
+    }
+}
@@ -0,0 +1,122 @@
+package testcomponents;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Identifica una partición ("shard") de la ejecución con el formato {@code i/n}, donde {@code i} va de 1 a {@code n}.
+ * Se usa para repartir datos o tests entre varias JVM de forma determinista.
+ */
+public final class Shard {
+
+    private static final Shard ALL = new Shard(1, 1);
+
+    private final int index;
+    private final int total;
+
+    private Shard(int index, int total) {
+        this.index = index;
+        this.total = total;
+    }
+
+    /**
+     * Lee la partición de una propiedad del sistema (por ejemplo {@code -DdataShard=2/4}).
+     *
+     * @param property Nombre de la propiedad.
+     * @return La partición indicada, o una partición única que lo incluye todo si la propiedad no existe.
+     */
+    public static Shard fromProperty(String property) {
+        return parse(System.getProperty(property));
+    }
+
+    /**
+     * @param spec Texto con el formato {@code i/n}; null o vacío equivale a {@code 1/1}.
+     * @return La partición correspondiente.
+     * @throws IllegalArgumentException Si el formato no es válido.
+     */
+    public static Shard parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return ALL;
+        }
+        String[] parts = spec.trim().split("/");
+        try {
+            if (parts.length == 2) {
+                int index = Integer.parseInt(parts[0].trim());
+                int total = Integer.parseInt(parts[1].trim());
+                if (total >= 1 && index >= 1 && index <= total) {
+                    return new Shard(index, total);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo con el mismo mensaje
+        }
+        throw new IllegalArgumentException("Shard inválido '" + spec + "', se esperaba i/n con 1 <= i <= n");
+    }
+
+    /**
+     * @param position Posición (desde 0) de un elemento en una secuencia estable.
+     * @return true si el elemento en esa posición pertenece a esta partición.
+     */
+    public boolean includes(int position) {
+        return position % total == index - 1;
+    }
+
+    /**
+     * Reparte los elementos entre las particiones equilibrando su peso (por ejemplo, la duración estimada) y
+     * devuelve los de esta partición, en su orden original. Se asigna primero el elemento más pesado a la
+     * partición menos cargada (LPT); los empates se deciden por la clave, de modo que todas las JVM que vean
+     * los mismos elementos y pesos calculan el mismo reparto, sin importar el orden en que los reciban.
+     *
+     * @param items  Los elementos a repartir.
+     * @param key    Clave única y estable de cada elemento.
+     * @param weight Peso de cada elemento (mayor o igual que 0).
+     * @return Los elementos que corresponden a esta partición.
+     */
+    public <T> List<T> select(List<T> items, Function<T, String> key, ToDoubleFunction<T> weight) {
+        if (isAll()) {
+            return items;
+        }
+        List<T> byWeight = new ArrayList<>(items);
+        byWeight.sort(Comparator.comparingDouble(weight).reversed().thenComparing(key));
+        double[] load = new double[total];
+        List<T> mine = new ArrayList<>();
+        for (T item : byWeight) {
+            int lightest = 0;
+            for (int i = 1; i < total; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            load[lightest] += weight.applyAsDouble(item);
+            if (lightest == index - 1) {
+                mine.add(item);
+            }
+        }
+        List<T> result = new ArrayList<>(items);
+        result.retainAll(mine);
+        return result;
+    }
+
+    /**
+     * @return true si hay una sola partición (no se reparte nada).
+     */
+    public boolean isAll() {
+        return total == 1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + total;
+    }
+}
@@ -0,0 +1,174 @@
+package testcomponents;
+
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Ejecución repartida entre varias JVM con {@code -Dshard=i/n}: cada JVM ejecuta solo su parte de los métodos
+ * de prueba (como interceptor de TestNG) y de los escenarios de Cucumber ({@link #selectScenarios(Object[][])}).
+ * <p>
+ * El reparto equilibra la duración estimada por el {@link TestHistoryStore} (LPT), no el número de pruebas, y es
+ * determinista: todas las JVM leen el mismo historial, que no se modifica durante una ejecución repartida (cada
+ * JVM deja sus resultados en su directorio y {@link ShardMerger} los incorpora al final). Los métodos unidos por
+ * {@code dependsOnMethods} van siempre a la misma JVM.
+ * <p>
+ * Cada JVM escribe en {@code -Dshard.dir} (por defecto {@code target/shards/shard-i-of-n}) su reporte de Extent
+ * (HTML y JSON), su {@code testng-results.xml} y los eventos de su historial.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardInterceptor.class);
+
+    private static final Shard SHARD = Shard.fromProperty("shard");
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    /**
+     * @return true si esta JVM ejecuta solo una parte de las pruebas.
+     */
+    public static boolean isSharded() {
+        return !SHARD.isAll();
+    }
+
+    /**
+     * @return La partición de esta JVM.
+     */
+    public static Shard shard() {
+        return SHARD;
+    }
+
+    /**
+     * @return El directorio de resultados de esta partición (se crea si no existe). La primera vez que se pide en
+     * la JVM se descartan los eventos de historial de una ejecución anterior, para no contarlos dos veces.
+     */
+    public static File outputDir() {
+        File dir = new File(System.getProperty("shard.dir", System.getProperty("user.dir") + "/target/shards/shard-"
+                + SHARD.getIndex() + "-of-" + SHARD.getTotal()));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("No se pudo crear " + dir);
+        }
+        if (STARTED.compareAndSet(false, true)) {
+            try {
+                Files.deleteIfExists(dir.toPath().resolve(TestHistoryStore.EVENTS_FILE));
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudieron descartar los eventos anteriores de " + dir, e);
+            }
+        }
+        return dir;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!isSharded() || methods.isEmpty()
+                || AbstractTestNGCucumberTests.class.isAssignableFrom(methods.get(0).getMethod().getRealClass())) {
+            return methods; // Los escenarios de Cucumber se reparten en su DataProvider
+        }
+
+        // Unidades: grupos de métodos unidos por dependencias, con la suma de sus duraciones estimadas
+        Map<String, String> parent = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            String key = TestHistoryStore.key(instance.getMethod());
+            parent.putIfAbsent(key, key);
+            for (String dependency : instance.getMethod().getMethodsDependedUpon()) {
+                parent.putIfAbsent(dependency, dependency);
+                union(parent, key, dependency);
+            }
+        }
+        Map<String, List<IMethodInstance>> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            units.computeIfAbsent(find(parent, TestHistoryStore.key(instance.getMethod())), k -> new ArrayList<>()).add(instance);
+        }
+
+        Function<IMethodInstance, Double> estimate = estimator(methods, i -> TestHistoryStore.key(i.getMethod()));
+        List<Map.Entry<String, List<IMethodInstance>>> selected = SHARD.select(new ArrayList<>(units.entrySet()),
+                Map.Entry::getKey, unit -> unit.getValue().stream().mapToDouble(estimate::apply).sum());
+
+        List<IMethodInstance> result = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            for (Map.Entry<String, List<IMethodInstance>> unit : selected) {
+                if (unit.getValue().contains(instance)) {
+                    result.add(instance);
+                }
+            }
+        }
+        log.info("Shard {} de '{}': {} de {} métodos", SHARD, context.getName(), result.size(), methods.size());
+        return result;
+    }
+
+    /**
+     * Filtra las filas del DataProvider de Cucumber ({@code {PickleWrapper, FeatureWrapper}}) para que esta JVM
+     * ejecute solo sus escenarios.
+     *
+     * @param scenarios Todos los escenarios.
+     * @return Los escenarios de esta partición.
+     */
+    public static Object[][] selectScenarios(Object[][] scenarios) {
+        if (!isSharded()) {
+            return scenarios;
+        }
+        List<Object[]> rows = Arrays.asList(scenarios);
+        Function<Object[], String> key = row -> TestHistoryStore.key(((PickleWrapper) row[0]).getPickle());
+        Function<Object[], Double> estimate = estimator(rows, key);
+        List<Object[]> selected = SHARD.select(rows, key, estimate::apply);
+        log.info("Shard {}: {} de {} escenarios", SHARD, selected.size(), scenarios.length);
+        return selected.toArray(new Object[0][]);
+    }
+
+    /**
+     * Duración estimada según el historial; lo que no tiene historial cuenta como la media de lo conocido
+     * (o 1 si no se conoce nada, con lo que el reparto equilibra el número de pruebas).
+     */
+    private static <T> Function<T, Double> estimator(List<T> items, Function<T, String> key) {
+        TestHistoryStore history = TestHistoryStore.getInstance();
+        double total = 0;
+        int known = 0;
+        for (T item : items) {
+            TestHistoryStore.Stats stats = history.get(key.apply(item));
+            if (stats != null) {
+                total += stats.getEstimatedMillis();
+                known++;
+            }
+        }
+        double fallback = known == 0 ? 1 : total / known;
+        return item -> {
+            TestHistoryStore.Stats stats = history.get(key.apply(item));
+            return stats == null ? fallback : stats.getEstimatedMillis();
+        };
+    }
+
+    private static String find(Map<String, String> parent, String key) {
+        String root = key;
+        while (!root.equals(parent.get(root))) {
+            root = parent.get(root);
+        }
+        return root;
+    }
+
+    private static void union(Map<String, String> parent, String a, String b) {
+        String rootA = find(parent, a);
+        String rootB = find(parent, b);
+        // La raíz es la clave menor, para que la clave de cada unidad sea la misma en todas las JVM
+        if (rootA.compareTo(rootB) < 0) {
+            parent.put(rootB, rootA);
+        } else if (rootA.compareTo(rootB) > 0) {
+            parent.put(rootA, rootB);
+        }
+    }
+}
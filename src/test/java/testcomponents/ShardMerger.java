@@ -0,0 +1,174 @@
+package testcomponents;
+
+import com.aventstack.extentreports.ExtentReports;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import resources.ExtentReporterNG;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Une los resultados de una ejecución repartida con {@code -Dshard=i/n} (ver {@link ShardInterceptor}):
+ * <ul>
+ *     <li>un solo reporte de Extent a partir del {@code extent.json} de cada partición;</li>
+ *     <li>un solo {@code testng-results.xml} con las suites de todas las particiones y los totales sumados;</li>
+ *     <li>los resultados de cada partición se incorporan al {@link TestHistoryStore}.</li>
+ * </ul>
+ * Uso: {@code mvn test -PMergeShards}, o {@code ShardMerger [directorioParticiones] [directorioSalida]}
+ * (por defecto {@code target/shards} y {@code reports}).
+ * <p>
+ * Solo se unen los directorios {@code shard-i-of-n} de la ejecución actual: la {@code n} se indica con
+ * {@code -Dshards=n} o, si no, es la de la partición escrita más recientemente; los de otra {@code n} son restos
+ * de ejecuciones anteriores y se ignoran.
+ */
+public final class ShardMerger {
+
+    private static final String RESULTS_FILE = "testng-results.xml";
+    private static final Pattern SHARD_DIR = Pattern.compile("shard-\\d+-of-(\\d+)");
+
+    private ShardMerger() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Paths.get(args.length > 0 ? args[0] : System.getProperty("user.dir") + "/target/shards");
+        Path out = Paths.get(args.length > 1 ? args[1] : BaseTest.reportsPath);
+
+        List<Path> shards = currentShards(root);
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("No hay particiones en " + root);
+        }
+        Files.createDirectories(out);
+
+        int reports = mergeExtent(shards, out.resolve("index.html"));
+        int results = mergeTestNgResults(shards, out.resolve(RESULTS_FILE));
+        int events = 0;
+        for (Path shard : shards) {
+            events += TestHistoryStore.getInstance().importShard(shard);
+        }
+        System.out.println("Particiones unidas desde " + root + ": " + shards.size() + " (reportes Extent: " + reports
+                + ", testng-results: " + results + ", resultados al historial: " + events + ") en " + out);
+    }
+
+    /**
+     * @return Los directorios de partición de la ejecución actual (ver la descripción de la clase). Si ninguno sigue
+     * el patrón {@code shard-i-of-n} ({@code -Dshard.dir} propio), todos los del directorio.
+     */
+    static List<Path> currentShards(Path root) throws IOException {
+        List<Path> dirs;
+        try (Stream<Path> list = Files.list(root)) {
+            dirs = list.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+        Integer total = Integer.getInteger("shards");
+        if (total == null) {
+            Path newest = null;
+            for (Path dir : dirs) {
+                if (SHARD_DIR.matcher(dir.getFileName().toString()).matches()
+                        && (newest == null || Files.getLastModifiedTime(dir).compareTo(Files.getLastModifiedTime(newest)) > 0)) {
+                    newest = dir;
+                }
+            }
+            if (newest == null) {
+                return dirs;
+            }
+            Matcher matcher = SHARD_DIR.matcher(newest.getFileName().toString());
+            matcher.matches();
+            total = Integer.valueOf(matcher.group(1));
+        }
+        List<Path> current = new ArrayList<>();
+        for (Path dir : dirs) {
+            Matcher matcher = SHARD_DIR.matcher(dir.getFileName().toString());
+            if (matcher.matches() && Integer.parseInt(matcher.group(1)) == total) {
+                current.add(dir);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return El número de reportes de partición incorporados.
+     */
+    static int mergeExtent(List<Path> shards, Path html) throws IOException {
+        ExtentReports extent = ExtentReporterNG.createReportObject(html.toString());
+        int merged = 0;
+        for (Path shard : shards) {
+            File json = shard.resolve("extent.json").toFile();
+            if (json.isFile()) {
+                extent.createDomainFromJsonArchive(json);
+                merged++;
+            }
+        }
+        extent.flush();
+        return merged;
+    }
+
+    /**
+     * Copia las {@code <suite>} de cada partición bajo un mismo {@code <testng-results>} y suma sus totales
+     * (total, passed, failed, skipped, ignored).
+     *
+     * @return El número de archivos de resultados incorporados.
+     */
+    static int mergeTestNgResults(List<Path> shards, Path target) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        Element reporterOutput = merged.createElement("reporter-output");
+        root.appendChild(reporterOutput);
+
+        int count = 0;
+        for (Path shard : shards) {
+            File file = shard.resolve(RESULTS_FILE).toFile();
+            if (!file.isFile()) {
+                continue;
+            }
+            count++;
+            Element results = builder.parse(file).getDocumentElement();
+            NamedNodeMap totals = results.getAttributes();
+            for (int i = 0; i < totals.getLength(); i++) {
+                Node total = totals.item(i);
+                if (!total.getNodeValue().matches("\\d+")) {
+                    continue;
+                }
+                long previous = root.hasAttribute(total.getNodeName()) ? Long.parseLong(root.getAttribute(total.getNodeName())) : 0;
+                root.setAttribute(total.getNodeName(), String.valueOf(previous + Long.parseLong(total.getNodeValue())));
+            }
+            NodeList children = results.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if ("reporter-output".equals(child.getNodeName())) {
+                    NodeList lines = child.getChildNodes();
+                    for (int j = 0; j < lines.getLength(); j++) {
+                        reporterOutput.appendChild(merged.importNode(lines.item(j), true));
+                    }
+                } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    root.appendChild(merged.importNode(child, true));
+                }
+            }
+        }
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        return count;
+    }
+}
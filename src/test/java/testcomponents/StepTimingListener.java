@@ -0,0 +1,75 @@
+package testcomponents;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Listener de {@code EventFiringDecorator} que mide cada comando enviado al navegador (sobre el driver,
+ * los elementos, las ventanas, etc.) y lo atribuye al método de page object que lo invocó, buscando en la
+ * pila de llamadas el marco más externo de {@code pageobjects} o {@code AbstractComponents}.
+ * Los tiempos se acumulan en {@link StepTimings}.
+ */
+public class StepTimingListener implements WebDriverListener {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    // Inicio de los comandos en curso en cada hilo (una pila, por si un comando invoca a otro decorado)
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        STARTS.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        long end = System.nanoTime();
+        Long start = STARTS.get().poll();
+        if (start == null) {
+            return;
+        }
+        List<StackWalker.StackFrame> frames = WALKER.walk(s -> s.collect(Collectors.toList()));
+        int outermost = -1;
+        for (int i = 0; i < frames.size(); i++) {
+            if (isPageFrame(frames.get(i).getClassName())) {
+                outermost = i;
+            }
+        }
+        if (outermost < 0) {
+            StepTimings.recordCommand(method.getName(), null, null, start, end);
+            return;
+        }
+        StackWalker.StackFrame page = frames.get(outermost);
+        String pageMethod = simpleName(page.getClassName()) + "." + page.getMethodName();
+        // La llamada concreta se identifica por quién llamó al método y desde qué profundidad de la pila
+        String identity = pageMethod + "@" + (frames.size() - outermost);
+        if (outermost + 1 < frames.size()) {
+            StackWalker.StackFrame caller = frames.get(outermost + 1);
+            identity += "<" + caller.getClassName() + ":" + caller.getLineNumber();
+        }
+        StepTimings.recordCommand(method.getName(), pageMethod, identity, start, end);
+    }
+
+    private static boolean isPageFrame(String className) {
+        return className.startsWith("pageobjects.") || className.startsWith("abstractcomponents.AbstractComponents");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
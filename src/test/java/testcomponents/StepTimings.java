@@ -0,0 +1,229 @@
+package testcomponents;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogramas de latencia (HdrHistogram, en microsegundos) de los comandos de WebDriver y de los métodos de
+ * los page objects, alimentados por {@link StepTimingListener}.
+ * <p>
+ * La duración de un método de page object se calcula como un tramo: desde el inicio del primer comando que
+ * se ejecuta dentro de él hasta el final del último. El tramo se cierra cuando llega un comando desde otro
+ * método (u otra llamada) o cuando la prueba termina ({@link #closeSpan()}); el trabajo del método que no
+ * habla con el navegador no se cuenta.
+ * <p>
+ * También se mide, por prueba, el tiempo hasta su primer comando (desde que pide el navegador al
+ * {@link DriverPool} hasta que envía el primer comando), que refleja la espera por el arranque de navegadores.
+ * <p>
+ * Al final de la suite se escribe un resumen JSON ({@code reports/step-timings.json}) y una sección en el
+ * reporte de Extent con los percentiles.
+ */
+public final class StepTimings {
+
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final Map<String, Histogram> COMMANDS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> PAGE_METHODS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> SESSIONS = new ConcurrentHashMap<>();
+
+    private static final String TIME_TO_FIRST_COMMAND = "timeToFirstCommand";
+
+    // Tramo del método de page object en curso en cada hilo
+    private static final ThreadLocal<Span> SPAN = new ThreadLocal<>();
+    // Inicio de la prueba en curso en cada hilo, hasta que envía su primer comando
+    private static final ThreadLocal<Long> TEST_START = new ThreadLocal<>();
+
+    private StepTimings() {
+    }
+
+    /**
+     * Método de page object en curso y los instantes de su primer y último comando.
+     */
+    private static final class Span {
+        private final String method;
+        private final String identity;
+        private final long startNanos;
+        private long endNanos;
+
+        private Span(String method, String identity, long startNanos) {
+            this.method = method;
+            this.identity = identity;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Registra un comando de WebDriver.
+     *
+     * @param command    Nombre del comando (por ejemplo {@code findElement} o {@code click}).
+     * @param pageMethod Método de page object desde el que se invocó ({@code Clase.metodo}), o null.
+     * @param identity   Identifica la llamada concreta al método (para separar dos llamadas seguidas), o null.
+     * @param startNanos Inicio del comando ({@link System#nanoTime()}).
+     * @param endNanos   Fin del comando.
+     */
+    static void recordCommand(String command, String pageMethod, String identity, long startNanos, long endNanos) {
+        record(COMMANDS, command, endNanos - startNanos);
+
+        Long testStart = TEST_START.get();
+        if (testStart != null) {
+            TEST_START.remove();
+            record(SESSIONS, TIME_TO_FIRST_COMMAND, startNanos - testStart);
+        }
+
+        Span span = SPAN.get();
+        if (span != null && !Objects.equals(span.identity, identity)) {
+            closeSpan();
+            span = null;
+        }
+        if (pageMethod != null) {
+            if (span == null) {
+                span = new Span(pageMethod, identity, startNanos);
+                SPAN.set(span);
+            }
+            span.endNanos = endNanos;
+        }
+    }
+
+    /**
+     * Marca el inicio de una prueba en este hilo: su primer comando registrará el tiempo hasta el primer comando.
+     *
+     * @param startNanos Instante en que la prueba pidió el navegador ({@link System#nanoTime()}).
+     */
+    public static void startTest(long startNanos) {
+        TEST_START.set(startNanos);
+    }
+
+    /**
+     * Cierra el tramo del método de page object en curso en este hilo, si lo hay.
+     * Se llama al terminar cada prueba.
+     */
+    public static void closeSpan() {
+        TEST_START.remove(); // Una prueba sin comandos no cuenta para el tiempo hasta el primer comando
+        Span span = SPAN.get();
+        if (span != null) {
+            SPAN.remove();
+            record(PAGE_METHODS, span.method, span.endNanos - span.startNanos);
+        }
+    }
+
+    private static void record(Map<String, Histogram> histograms, String key, long nanos) {
+        long micros = Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        histograms.computeIfAbsent(key, k -> new ConcurrentHistogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS))
+                .recordValue(micros);
+    }
+
+    /**
+     * @return Resumen de percentiles (en milisegundos) por comando, por método de page object y del tiempo hasta
+     * el primer comando de cada prueba.
+     */
+    public static Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("commands", summarize(COMMANDS));
+        summary.put("pageMethods", summarize(PAGE_METHODS));
+        summary.put("sessions", summarize(SESSIONS));
+        return summary;
+    }
+
+    private static Map<String, Map<String, Object>> summarize(Map<String, Histogram> histograms) {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        histograms.forEach((key, histogram) -> {
+            Histogram copy = histogram.copy(); // Copia consistente mientras otros hilos siguen registrando
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", copy.getTotalCount());
+            stats.put("meanMs", round(copy.getMean() / 1000.0));
+            stats.put("p50Ms", millis(copy, 50));
+            stats.put("p90Ms", millis(copy, 90));
+            stats.put("p99Ms", millis(copy, 99));
+            stats.put("maxMs", round(copy.getMaxValue() / 1000.0));
+            stats.put("totalMs", round(copy.getMean() * copy.getTotalCount() / 1000.0));
+            result.put(key, stats);
+        });
+        return result;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Escribe el resumen en JSON.
+     *
+     * @param file Archivo de destino.
+     * @throws IOException Si no se puede escribir.
+     */
+    public static void writeJson(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("No se pudo crear " + dir);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, summary());
+    }
+
+    /**
+     * Añade al reporte una sección con las tablas de percentiles.
+     * Debe ejecutarse en el hilo escritor del reporte (vía {@code AsyncReportWriter.submit}).
+     *
+     * @param extent El reporte.
+     */
+    @SuppressWarnings("unchecked")
+    public static void addToReport(ExtentReports extent) {
+        Map<String, Object> summary = summary();
+        if (((Map<String, ?>) summary.get("commands")).isEmpty()) {
+            return;
+        }
+        ExtentTest section = extent.createTest("Latencia de pasos");
+        Map<String, Map<String, Object>> sessions = (Map<String, Map<String, Object>>) summary.get("sessions");
+        if (!sessions.isEmpty()) {
+            section.log(Status.INFO, MarkupHelper.createTable(table("Sesión", sessions)));
+        }
+        section.log(Status.INFO, MarkupHelper.createTable(table("Método de página",
+                (Map<String, Map<String, Object>>) summary.get("pageMethods"))));
+        section.log(Status.INFO, MarkupHelper.createTable(table("Comando",
+                (Map<String, Map<String, Object>>) summary.get("commands"))));
+    }
+
+    private static String[][] table(String title, Map<String, Map<String, Object>> rows) {
+        List<String[]> table = new ArrayList<>();
+        table.add(new String[]{title, "n", "media ms", "p50 ms", "p90 ms", "p99 ms", "máx ms", "total ms"});
+        rows.entrySet().stream()
+                .sorted((a, b) -> Double.compare((double) b.getValue().get("p99Ms"), (double) a.getValue().get("p99Ms")))
+                .forEach(e -> {
+                    Map<String, Object> s = e.getValue();
+                    table.add(new String[]{e.getKey(), String.valueOf(s.get("count")), String.valueOf(s.get("meanMs")),
+                            String.valueOf(s.get("p50Ms")), String.valueOf(s.get("p90Ms")), String.valueOf(s.get("p99Ms")),
+                            String.valueOf(s.get("maxMs")), String.valueOf(s.get("totalMs"))});
+                });
+        return table.toArray(new String[0][]);
+    }
+
+    /**
+     * Vacía todos los histogramas.
+     */
+    public static void reset() {
+        COMMANDS.clear();
+        PAGE_METHODS.clear();
+        SESSIONS.clear();
+    }
+}
@@ -0,0 +1,440 @@
+package testcomponents;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Historial persistente de resultados por prueba, acumulado entre ejecuciones en {@code .test-history/history.json}
+ * (configurable con {@code -Dhistory.file}).
+ * <p>
+ * Por cada METODO de prueba guarda ejecuciones, aprobadas, fallidas, las que solo pasaron tras un reintento
+ * ("flaky"), la duración media y los últimos resultados, también por cada conjunto de parámetros (fila del
+ * DataProvider). Con eso calcula un índice de inestabilidad para ordenar qué pruebas conviene arreglar primero;
+ * el ranking se añade al reporte de Extent.
+ * <p>
+ * Los resultados de la ejecución se guardan como eventos y se aplican sobre el archivo al llamar a {@link #save()},
+ * con un bloqueo de archivo, para que varias JVM puedan escribir el mismo historial sin perder datos.
+ */
+public final class TestHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TestHistoryStore.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final TypeReference<TreeMap<String, Stats>> HISTORY_TYPE = new TypeReference<TreeMap<String, Stats>>() {
+    };
+    private static final TypeReference<List<Event>> EVENTS_TYPE = new TypeReference<List<Event>>() {
+    };
+
+    private static final TestHistoryStore INSTANCE = new TestHistoryStore(Paths.get(System.getProperty("history.file",
+            System.getProperty("user.dir") + "/.test-history/history.json")));
+
+    // Resultados de una partición, en su directorio (ver ShardInterceptor)
+    static final String EVENTS_FILE = "history-events.json";
+
+    // Resultados que se recuerdan por prueba para detectar cambios entre aprobado y fallido
+    private static final int RECENT_RUNS = 20;
+    // Conjuntos de parámetros que se recuerdan por prueba; se olvidan primero los que llevan más sin ejecutarse
+    private static final int MAX_PARAMETER_SETS = 50;
+    // Peso de la última duración en la media móvil exponencial
+    private static final double DURATION_WEIGHT = 0.3;
+
+    /**
+     * Estadísticas acumuladas de una prueba.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Stats {
+        public int runs;
+        public int passed;
+        public int failed;
+        public int flaky;
+        public int retries;
+        public double avgMillis;
+        public long lastMillis;
+        public String lastOutcome;
+        public long lastRunAt;
+        public long lastFailureAt;
+        // Invocaciones en la última ejecución (filas del DataProvider)
+        public int lastInvocations;
+        // Últimos resultados, del más antiguo al más reciente: P (aprobada) o F (fallida)
+        public String recent = "";
+        // Los mismos resultados por conjunto de parámetros (vacío para pruebas sin parámetros y escenarios)
+        public Map<String, String> recentByParameters = new LinkedHashMap<>();
+
+        /**
+         * @return La duración estimada de todas las invocaciones de la prueba en una ejecución, en milisegundos.
+         */
+        @JsonIgnore
+        public double getEstimatedMillis() {
+            return avgMillis * Math.max(1, lastInvocations);
+        }
+
+        /**
+         * @param window Número de resultados recientes a mirar.
+         * @return true si la prueba falló en alguno de sus últimos {@code window} resultados.
+         */
+        public boolean failedWithin(int window) {
+            return recent.substring(Math.max(0, recent.length() - window)).indexOf('F') >= 0;
+        }
+
+        /**
+         * Índice de inestabilidad entre 0 y 1: el mayor entre la proporción de ejecuciones que solo pasaron
+         * tras reintentar y la proporción de cambios entre aprobado y fallido en los últimos resultados de cada
+         * conjunto de parámetros. Una prueba que siempre falla o siempre pasa con los mismos parámetros tiene 0,
+         * aunque otra fila del DataProvider dé el resultado contrario.
+         */
+        @JsonIgnore
+        public double getFlakiness() {
+            double flakyRate = runs == 0 ? 0 : (double) flaky / runs;
+            // Historiales anteriores sin resultados por parámetros: se usa la secuencia de la prueba
+            Iterable<String> sequences = recentByParameters.isEmpty()
+                    ? Collections.singletonList(recent) : recentByParameters.values();
+            int flips = 0;
+            int transitions = 0;
+            for (String sequence : sequences) {
+                for (int i = 1; i < sequence.length(); i++) {
+                    if (sequence.charAt(i) != sequence.charAt(i - 1)) {
+                        flips++;
+                    }
+                }
+                transitions += Math.max(0, sequence.length() - 1);
+            }
+            double flipRate = transitions == 0 ? 0 : (double) flips / transitions;
+            return Math.max(flakyRate, flipRate);
+        }
+
+        private void apply(Event event) {
+            runs++;
+            retries += event.retries;
+            if (event.passed) {
+                passed++;
+                if (event.retries > 0) {
+                    flaky++;
+                }
+            } else {
+                failed++;
+                lastFailureAt = event.at;
+            }
+            avgMillis = runs == 1 ? event.millis : avgMillis + DURATION_WEIGHT * (event.millis - avgMillis);
+            lastMillis = event.millis;
+            lastOutcome = event.passed ? "PASS" : "FAIL";
+            lastRunAt = event.at;
+            recent = append(recent, event.passed);
+            String parameters = event.parameters == null ? "" : event.parameters;
+            // Se reinserta para que el orden sea el de la última ejecución
+            recentByParameters.put(parameters, append(recentByParameters.remove(parameters), event.passed));
+            Iterator<String> oldest = recentByParameters.keySet().iterator();
+            while (recentByParameters.size() > MAX_PARAMETER_SETS) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+
+        private static String append(String sequence, boolean passed) {
+            String appended = (sequence == null ? "" : sequence) + (passed ? 'P' : 'F');
+            return appended.length() > RECENT_RUNS ? appended.substring(appended.length() - RECENT_RUNS) : appended;
+        }
+    }
+
+    /**
+     * Resultado final de una ejecución de una prueba en esta JVM, pendiente de guardar.
+     */
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+    private static final class Event {
+        private String key;
+        // Conjunto de parámetros de la invocación ("" si no tiene)
+        private String parameters;
+        private boolean passed;
+        private long millis;
+        private int retries;
+        private long at;
+
+        private Event() {
+            // Para Jackson
+        }
+
+        private Event(String key, String parameters, boolean passed, long millis, int retries, long at) {
+            this.key = key;
+            this.parameters = parameters;
+            this.passed = passed;
+            this.millis = millis;
+            this.retries = retries;
+            this.at = at;
+        }
+    }
+
+    private final Path file;
+    // ReentrantLock y no synchronized: se guarda con E/S de archivos, que fijaría los hilos virtuales que esperan
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Stats> history;
+    private final List<Event> pending = new ArrayList<>();
+    // Reintentos de cada invocación (prueba y parámetros) que todavía no tiene resultado final
+    private final Map<String, Integer> retriesInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un historial sobre otro archivo; el de las suites es {@link #getInstance()}.
+     *
+     * @param file Archivo JSON del historial (no hace falta que exista).
+     */
+    public TestHistoryStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return El historial compartido por toda la JVM.
+     */
+    public static TestHistoryStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return La clave de la prueba en el historial: clase y METODO o, si es un escenario de Cucumber, el escenario.
+     */
+    public static String key(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0 && parameters[0] instanceof PickleWrapper) {
+            return key(((PickleWrapper) parameters[0]).getPickle());
+        }
+        return key(result.getMethod());
+    }
+
+    /**
+     * @return La clave del escenario de Cucumber en el historial: archivo .feature y línea (independiente de la ruta
+     * del proyecto, para que coincida en todas las máquinas).
+     */
+    public static String key(Pickle pickle) {
+        String path = pickle.getUri().getPath();
+        return "cucumber." + path.substring(path.lastIndexOf('/') + 1) + ":" + pickle.getLine();
+    }
+
+    /**
+     * @return La clave del METODO de prueba en el historial: clase y METODO.
+     */
+    public static String key(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    /**
+     * @return El conjunto de parámetros de la invocación: "" para pruebas sin parámetros y escenarios de Cucumber
+     * (el escenario ya está en la clave).
+     */
+    private static String parameterKey(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length == 0 || parameters[0] instanceof PickleWrapper) {
+            return "";
+        }
+        return Arrays.deepToString(parameters);
+    }
+
+    private static String invocationKey(ITestResult result) {
+        return key(result) + parameterKey(result);
+    }
+
+    /**
+     * Anota que la invocación falló y se va a reintentar.
+     */
+    public void recordRetry(ITestResult result) {
+        retriesInFlight.merge(invocationKey(result), 1, Integer::sum);
+    }
+
+    /**
+     * Anota el resultado final de una invocación (después de sus reintentos, si los hubo).
+     *
+     * @param result El resultado de TestNG.
+     * @param passed true si la prueba pasó.
+     */
+    public void recordOutcome(ITestResult result, boolean passed) {
+        Integer retries = retriesInFlight.remove(invocationKey(result));
+        Event event = new Event(key(result), parameterKey(result), passed, Math.max(0, result.getEndMillis() - result.getStartMillis()),
+                retries == null ? 0 : retries, System.currentTimeMillis());
+        lock.lock();
+        try {
+            pending.add(event);
+            loaded().computeIfAbsent(event.key, k -> new Stats()).apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param key La clave de la prueba ({@link #key(ITestResult)}).
+     * @return Sus estadísticas (incluida esta ejecución), o null si nunca se ejecutó.
+     */
+    public Stats get(String key) {
+        lock.lock();
+        try {
+            return loaded().get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Las pruebas con índice de inestabilidad mayor que 0, de la más a la menos inestable.
+     */
+    public List<Map.Entry<String, Stats>> flakinessRanking() {
+        lock.lock();
+        try {
+            return loaded().entrySet().stream()
+                    .filter(e -> e.getValue().getFlakiness() > 0)
+                    .sorted(Comparator.comparingDouble((Map.Entry<String, Stats> e) -> e.getValue().getFlakiness()).reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Stats> loaded() {
+        if (history == null) {
+            history = read();
+        }
+        return history;
+    }
+
+    private Map<String, Stats> read() {
+        if (Files.isRegularFile(file)) {
+            try {
+                return MAPPER.readValue(file.toFile(), HISTORY_TYPE);
+            } catch (IOException e) {
+                log.warn("Historial de pruebas ilegible ({}), se empieza de cero: {}", file, e.getMessage());
+            }
+        }
+        return new TreeMap<>();
+    }
+
+    /**
+     * Aplica los resultados de esta ejecución sobre el historial en disco. Se llama al terminar la suite.
+     * En una ejecución repartida ({@link ShardInterceptor}) el historial no se toca, para que todas las JVM
+     * calculen el mismo reparto: los resultados se dejan en el directorio de la partición y los incorpora
+     * {@link ShardMerger}.
+     */
+    public void save() {
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                if (ShardInterceptor.isSharded()) {
+                    exportEvents(ShardInterceptor.outputDir().toPath().resolve(EVENTS_FILE));
+                    return;
+                }
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock fileLock = channel.lock();
+                    try {
+                        // Otra JVM pudo guardar mientras tanto: se relee y se aplican solo los eventos propios
+                        Map<String, Stats> merged = read();
+                        Map<String, Integer> invocations = new TreeMap<>();
+                        for (Event event : pending) {
+                            merged.computeIfAbsent(event.key, k -> new Stats()).apply(event);
+                            invocations.merge(event.key, 1, Integer::sum);
+                        }
+                        invocations.forEach((key, count) -> merged.get(key).lastInvocations = count);
+                        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "history", ".tmp");
+                        MAPPER.writeValue(tmp.toFile(), merged);
+                        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        history = merged;
+                        pending.clear();
+                    } finally {
+                        fileLock.release();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("No se pudo guardar el historial de pruebas {}: {}", file, e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void exportEvents(Path events) throws IOException {
+        List<Event> all = Files.isRegularFile(events) ? MAPPER.readValue(events.toFile(), EVENTS_TYPE) : new ArrayList<>();
+        all.addAll(pending);
+        MAPPER.writeValue(events.toFile(), all);
+        pending.clear();
+    }
+
+    /**
+     * Incorpora los resultados que dejó una partición con {@code -Dshard} y los guarda en el historial.
+     *
+     * @param shardDir Directorio de la partición.
+     * @return El número de resultados incorporados.
+     * @throws IOException Si el archivo de eventos no se puede leer.
+     */
+    public int importShard(Path shardDir) throws IOException {
+        Path events = shardDir.resolve(EVENTS_FILE);
+        if (!Files.isRegularFile(events)) {
+            return 0;
+        }
+        List<Event> imported = MAPPER.readValue(events.toFile(), EVENTS_TYPE);
+        lock.lock();
+        try {
+            for (Event event : imported) {
+                pending.add(event);
+                loaded().computeIfAbsent(event.key, k -> new Stats()).apply(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+        save();
+        return imported.size();
+    }
+
+    /**
+     * Añade al reporte una sección con las pruebas más inestables según el historial.
+     *
+     * @param extent El reporte.
+     */
+    public void addToReport(ExtentReports extent) {
+        List<Map.Entry<String, Stats>> ranking = flakinessRanking();
+        if (ranking.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Prueba", "Inestabilidad", "Ejecuciones", "Fallidas", "Flaky", "Reintentos", "Últimos"});
+        for (Map.Entry<String, Stats> entry : ranking.subList(0, Math.min(20, ranking.size()))) {
+            Stats stats = entry.getValue();
+            rows.add(new String[]{entry.getKey(), String.format("%.2f", stats.getFlakiness()),
+                    String.valueOf(stats.runs), String.valueOf(stats.failed), String.valueOf(stats.flaky),
+                    String.valueOf(stats.retries), stats.recent});
+        }
+        extent.createTest("Pruebas inestables")
+                .log(Status.INFO, MarkupHelper.createTable(rows.toArray(new String[0][])));
+    }
+}
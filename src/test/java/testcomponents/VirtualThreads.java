@@ -0,0 +1,147 @@
+package testcomponents;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IExecutorServiceFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.TestNG;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecución de pruebas en hilos virtuales (requiere JDK 21+): {@code mvn test -PVirtualThreads}.
+ * <p>
+ * Cada comando de WebDriver es una llamada HTTP bloqueante, así que los hilos del pool de TestNG pasan casi todo
+ * el tiempo esperando. En este modo TestNG crea un hilo virtual por tarea (método, clase o {@code <test>}) en lugar
+ * de usar un pool de {@code thread-count} hilos del sistema. La concurrencia real la limita la capacidad de
+ * navegadores: el {@link DriverPool} ({@code -DpoolSize}) bloquea a las pruebas que esperan una sesión, y un hilo
+ * virtual bloqueado no ocupa un hilo del sistema. Junto con {@code -DbrowserContexts=true} ({@link BrowserContexts})
+ * permite cientos de sesiones ligeras sin ajustar pools.
+ * <p>
+ * La fábrica de ejecutores solo se puede indicar en la instancia de {@link TestNG} que lanza las suites, y Surefire
+ * no lo permite: por eso el modo se lanza con {@link #main} (perfil {@code VirtualThreads}, suites en
+ * {@code -DvirtualThreads.suites}). Las filas de un DataProvider paralelo (escenarios de Cucumber) siguen en el pool
+ * de {@code data-provider-thread-count} hilos del sistema que TestNG crea para ellas; {@link DataProviderConcurrency}
+ * ya lo ajusta a las sesiones del {@link DriverPool}.
+ * <p>
+ * Como listener de la suite escribe las métricas del modo al terminar, y avisa si se pidió con
+ * {@code -DvirtualThreads=true} desde Surefire, donde no se aplica. Con un JDK sin hilos virtuales se avisa y se
+ * usan los hilos del sistema como siempre.
+ */
+public class VirtualThreads implements ISuiteListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final String DEFAULT_SUITE = "src/testSuites/testng.xml";
+
+    private static final AtomicBoolean NOT_LAUNCHED_WARNED = new AtomicBoolean();
+
+    // Null si no se lanzó con main o el JDK no tiene hilos virtuales
+    private static volatile Factory factory;
+
+    // Métricas
+    private static final LongAdder TASKS = new LongAdder();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+
+    /**
+     * Crea los ejecutores de TestNG: un hilo virtual por tarea, sin límite propio.
+     */
+    static final class Factory implements IExecutorServiceFactory {
+        private final Method newThreadPerTaskExecutor;
+        private final ThreadFactory threads;
+
+        private Factory() throws ReflectiveOperationException {
+            // API de JDK 21 por reflexión para que el proyecto siga compilando con target 9
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            // El nombre debe contener "TestNG": TestNG lo usa para reconocer sus propios hilos
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "TestNG-virtual-", 0L);
+            this.threads = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            this.newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        }
+
+        @Override
+        public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                      BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+            try {
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, (ThreadFactory) task -> threads.newThread(() -> {
+                    TASKS.increment();
+                    PEAK.accumulateAndGet(RUNNING.incrementAndGet(), Math::max);
+                    try {
+                        task.run();
+                    } finally {
+                        RUNNING.decrementAndGet();
+                    }
+                }));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta las suites con los métodos, clases y {@code <test>} paralelos en hilos virtuales.
+     *
+     * @param args Archivos XML de suite o nombres de clases de prueba, también separados por comas; por defecto
+     *             {@code src/testSuites/testng.xml}.
+     */
+    public static void main(String[] args) throws ClassNotFoundException {
+        List<String> suites = new ArrayList<>();
+        List<Class<?>> classes = new ArrayList<>();
+        for (String arg : String.join(",", args.length > 0 ? args : new String[]{DEFAULT_SUITE}).split(",")) {
+            if (arg.isEmpty()) {
+                continue;
+            }
+            if (arg.endsWith(".xml")) {
+                suites.add(arg);
+            } else {
+                classes.add(Class.forName(arg));
+            }
+        }
+        TestNG testng = new TestNG();
+        testng.setOutputDirectory(System.getProperty("user.dir") + "/target/surefire-reports"); // Igual que con Surefire
+        testng.setTestSuites(suites);
+        if (!classes.isEmpty()) {
+            testng.setTestClasses(classes.toArray(new Class<?>[0]));
+        }
+        try {
+            factory = new Factory();
+            testng.setExecutorServiceFactory(factory);
+            log.info("Pruebas en hilos virtuales: concurrencia limitada por el DriverPool ({} sesiones)",
+                    DriverPool.getInstance().getMaxSize());
+        } catch (ReflectiveOperationException e) {
+            log.warn("Java {} no tiene hilos virtuales (requiere 21+): se usan los hilos de TestNG",
+                    System.getProperty("java.specification.version"));
+        }
+        testng.run();
+        if (testng.hasFailure()) {
+            throw new IllegalStateException("Hay pruebas fallidas (estado de TestNG " + testng.getStatus() + ")");
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (factory == null && Boolean.getBoolean("virtualThreads") && NOT_LAUNCHED_WARNED.compareAndSet(false, true)) {
+            log.warn("-DvirtualThreads=true no se aplica desde Surefire: usa mvn test -PVirtualThreads");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (factory != null && TASKS.sum() > 0) {
+            log.info("Hilos virtuales en '{}': tareas={}, concurrencia máxima={}", suite.getName(), TASKS.sum(), PEAK.get());
+        }
+    }
+}
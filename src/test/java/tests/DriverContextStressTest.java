@@ -0,0 +1,104 @@
+package tests;
+
+import abstractcomponents.DriverContext;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import pageobjects.LandingPage;
+import testcomponents.DriverPool;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de estrés del registro de drivers por hilo ({@link DriverContext}) y del {@link DriverPool}.
+ * Ejecuta muchas sesiones falsas en paralelo (sin navegador) y verifica que ningún hilo vea
+ * el driver de otro y que una misma sesión nunca esté prestada a dos hilos a la vez. Usa un pool propio,
+ * no el compartido, para que las sesiones falsas no lleguen a otras pruebas.
+ */
+public class DriverContextStressTest {
+
+    private static final AtomicInteger sessionIds = new AtomicInteger();
+
+    // Sesión -> hilo que la tiene prestada en este momento
+    private final Map<WebDriver, Thread> owners = new ConcurrentHashMap<>();
+
+    // Pool propio: las sesiones falsas no deben quedar en el pool compartido que usan las pruebas reales
+    private final DriverPool pool = new DriverPool(5, true);
+
+    /**
+     * Cada invocación toma una sesión del pool, la publica en el contexto del hilo,
+     * crea un page object a partir del contexto y comprueba que todo sigue apuntando a su propia sesión.
+     */
+    @Test(invocationCount = 400, threadPoolSize = 32)
+    public void concurrentSessionsDoNotCrossTalk() throws Exception {
+        WebDriver leased = pool.lease(DriverContextStressTest::fakeSession);
+        try {
+            Assert.assertNull(owners.putIfAbsent(leased, Thread.currentThread()),
+                    "La sesión " + leased + " ya estaba prestada a otro hilo");
+
+            DriverContext.setDriver(leased);
+            new LandingPage(); // Los page objects resuelven el driver del hilo actual
+            Thread.sleep(ThreadLocalRandom.current().nextInt(3)); // Fuerza el entrelazado de hilos
+
+            Assert.assertSame(DriverContext.getDriver(), leased, "El hilo ve el driver de otro hilo");
+            Assert.assertSame(owners.get(leased), Thread.currentThread());
+        } finally {
+            owners.remove(leased);
+            DriverContext.clear();
+            pool.release(leased);
+        }
+        Assert.assertNull(DriverContext.getDriver());
+    }
+
+    /**
+     * El pool nunca debe crear más sesiones que su tamaño máximo, aunque haya más hilos que sesiones.
+     */
+    @Test(dependsOnMethods = "concurrentSessionsDoNotCrossTalk")
+    public void poolStaysBounded() {
+        Assert.assertTrue(pool.getCreatedCount() - pool.getEvictedCount() <= pool.getMaxSize(), pool.toString());
+        Assert.assertTrue(pool.getReusedCount() > 0, pool.toString());
+    }
+
+    /**
+     * Cierra las sesiones falsas que quedaron libres en el pool propio.
+     */
+    @AfterClass(alwaysRun = true)
+    public void closePool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Crea un WebDriver falso que solo responde a las llamadas que hace el pool.
+     */
+    private static WebDriver fakeSession() {
+        String handle = "fake-" + sessionIds.incrementAndGet();
+        Object options = Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) -> null);
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWindowHandle":
+                            return handle;
+                        case "getWindowHandles":
+                            return Collections.singleton(handle);
+                        case "manage":
+                            return options;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return handle;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
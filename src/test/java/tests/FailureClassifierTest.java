@@ -0,0 +1,66 @@
+package tests;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import testcomponents.FailureClassifier;
+import testcomponents.FailureClassifier.Kind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+
+/**
+ * Pruebas unitarias de {@link FailureClassifier} (sin navegador): qué fallos se reintentan y cuáles no.
+ */
+public class FailureClassifierTest {
+
+    @DataProvider
+    public Object[][] failures() {
+        return new Object[][]{
+                {null, Kind.DETERMINISTIC},
+                {new AssertionError("expected [true] but found [false]"), Kind.DETERMINISTIC},
+                {new IllegalStateException("dato inválido"), Kind.DETERMINISTIC},
+                {new NoSuchElementException("no such element"), Kind.DETERMINISTIC},
+                {new NoSuchSessionException("invalid session id"), Kind.SESSION_LOST},
+                {new UnreachableBrowserException("Error communicating with the remote browser"), Kind.SESSION_LOST},
+                {new WebDriverException("chrome not reachable"), Kind.SESSION_LOST},
+                {new WebDriverException("no such window: target window already closed"), Kind.SESSION_LOST},
+                {new TimeoutException("Expected condition failed"), Kind.TRANSIENT},
+                {new StaleElementReferenceException("stale element reference"), Kind.TRANSIENT},
+                {new UncheckedIOException(new IOException("reset")), Kind.TRANSIENT},
+                {new WebDriverException("unknown error"), Kind.DETERMINISTIC},
+        };
+    }
+
+    @Test(dataProvider = "failures")
+    public void classifiesFailure(Throwable failure, Kind expected) {
+        Assert.assertEquals(FailureClassifier.classify(failure), expected, String.valueOf(failure));
+    }
+
+    /**
+     * La primera causa que no es determinista decide, aunque venga envuelta en otra excepción.
+     */
+    @Test
+    public void looksThroughTheCauseChain() {
+        Throwable wrapped = new RuntimeException("paso fallido",
+                new WebDriverException("error de red", new ConnectException("Connection refused")));
+        Assert.assertEquals(FailureClassifier.classify(wrapped), Kind.TRANSIENT);
+    }
+
+    /**
+     * Una aserción corta la búsqueda: lo que la prueba comprueba no depende del reintento.
+     */
+    @Test
+    public void assertionStopsTheCauseChain() {
+        Throwable assertion = new AssertionError("total incorrecto", new TimeoutException("espera agotada"));
+        Assert.assertEquals(FailureClassifier.classify(assertion), Kind.DETERMINISTIC);
+        Assert.assertFalse(FailureClassifier.classify(assertion).isRetryable());
+    }
+}
@@ -5,10 +5,14 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import pageobjects.*;
+import testcomponents.ApiFixtures;
 import testcomponents.BaseTest;
+import testcomponents.DataProviders;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 
 public class StandAloneTestDataHashMap extends BaseTest {
@@ -26,8 +30,8 @@ public class StandAloneTestDataHashMap extends BaseTest {
      */
     @Test(dataProvider = "getData", groups = {"Purchase"})
     public void submitOrder(HashMap<String, String> input) throws InterruptedException, IOException {
-        // Realiza el inicio de sesión con los datos proporcionados
-        ProductCataloguePage productCataloguePage = landingPage.loginApplication(input.get("email"), input.get("password"));
+        // Inicia sesión con los datos proporcionados (reutiliza la sesión si ya se inició antes)
+        ProductCataloguePage productCataloguePage = login(input.get("email"), input.get("password"));
 
         // Obtiene la lista de productos disponibles y agrega el producto al carrito
         List<WebElement> products = productCataloguePage.getProductList();
@@ -49,14 +53,19 @@ public class StandAloneTestDataHashMap extends BaseTest {
     }
 
     /**
-     * Prueba que verifica si el pedido realizado aparece en el historial de órdenes.
-     * Este metodo depende de la ejecución exitosa de la prueba `submitOrder`. Después de realizar un pedido,
-     * verifica si el producto aparece en el historial de órdenes.
+     * Prueba que verifica si un pedido aparece en el historial de órdenes.
+     * El pedido se crea antes por el API ({@link ApiFixtures}), sin recorrer catálogo, carrito y checkout por la
+     * interfaz, por lo que la prueba no depende de `submitOrder` y puede ejecutarse en paralelo con ella.
+     * Usa el usuario de pedidos ({@link ApiFixtures#ORDERS_USER}, configurable en GlobalData.properties): crear el
+     * pedido vacía el carrito, así que debe ser una cuenta sin compras en curso.
      */
-    @Test(dependsOnMethods = {"submitOrder"})
-    public void OrderHistoryTest() {
-        // Inicia sesión en la aplicación
-        ProductCataloguePage productCataloguePage = landingPage.loginApplication("anshika@gmail.com", "Iamking@000");
+    @Test
+    public void OrderHistoryTest() throws InterruptedException {
+        // Crea el pedido directamente por el API
+        ApiFixtures.as(ApiFixtures.ORDERS_USER, ApiFixtures.ORDERS_PASSWORD).createOrder(productName, "India");
+
+        // Inicia sesión en la aplicación (reutiliza la sesión si ya se inició antes)
+        ProductCataloguePage productCataloguePage = login(ApiFixtures.ORDERS_USER, ApiFixtures.ORDERS_PASSWORD);
 
         // Navega a la página de órdenes y verifica que el producto esté en el historial
         OrderPage orderPage = productCataloguePage.goToOrdersPage();
@@ -67,11 +76,12 @@ public class StandAloneTestDataHashMap extends BaseTest {
      * Proporciona los datos necesarios para ejecutar la prueba `submitOrder`.
      * Este metodo proporciona dos conjuntos de datos diferentes que contienen el correo electrónico, la contraseña
      * y el nombre del producto para cada ejecución de la prueba.
+     * Las filas se ejecutan en paralelo, limitadas por el número de navegadores del pool.
      *
-     * @return Un array de objetos que contiene los datos necesarios para las pruebas.
+     * @return Un iterador con los datos necesarios para cada ejecución de la prueba.
      */
-    @DataProvider
-    public Object[][] getData() {
+    @DataProvider(parallel = true)
+    public Iterator<Object[]> getData() {
         // Primer conjunto de datos
         HashMap<String, String> map = new HashMap<String, String>();
         map.put("email", "anshika@gmail.com");
@@ -84,8 +94,8 @@ public class StandAloneTestDataHashMap extends BaseTest {
         map1.put("password", "Iamking@000");
         map1.put("productName", "IPHONE 13 PRO");
 
-        // Retorna los datos como un array de objetos
-        return new Object[][]{{map}, {map1}};
+        // Retorna los datos filtrados por -DdataShard
+        return DataProviders.shard(Arrays.asList(new Object[]{map}, new Object[]{map1}).iterator());
     }
 }
 
@@ -5,6 +5,7 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import pageobjects.*;
+import testcomponents.ApiFixtures;
 import testcomponents.BaseTest;
 
 import java.io.IOException;
@@ -29,8 +30,8 @@ public class StandAloneTestObject extends BaseTest {
      */
     @Test(dataProvider = "getData", groups = {"Purchase"})
     public void SubmitOrder(String email, String password, String productName) throws InterruptedException, IOException {
-        // Realiza el inicio de sesión con los datos proporcionados
-        ProductCataloguePage productCataloguePage = landingPage.loginApplication(email, password);
+        // Inicia sesión con los datos proporcionados (reutiliza la sesión si ya se inició antes)
+        ProductCataloguePage productCataloguePage = login(email, password);
 
         // Obtiene la lista de productos disponibles y agrega el producto al carrito
         List<WebElement> products = productCataloguePage.getProductList();
@@ -52,14 +53,19 @@ public class StandAloneTestObject extends BaseTest {
     }
 
     /**
-     * Prueba que verifica si el pedido realizado aparece en el historial de órdenes.
-     * Este metodo depende de la ejecución exitosa de la prueba `SubmitOrder`. Después de realizar un pedido,
-     * verifica si el producto aparece en el historial de órdenes.
+     * Prueba que verifica si un pedido aparece en el historial de órdenes.
+     * El pedido se crea antes por el API ({@link ApiFixtures}), sin recorrer catálogo, carrito y checkout por la
+     * interfaz, por lo que la prueba no depende de `SubmitOrder` y puede ejecutarse en paralelo con ella.
+     * Usa el usuario de pedidos ({@link ApiFixtures#ORDERS_USER}, configurable en GlobalData.properties): crear el
+     * pedido vacía el carrito, así que debe ser una cuenta sin compras en curso.
      */
-    @Test(dependsOnMethods = {"SubmitOrder"})
-    public void OrderHistoryTest() {
-        // Inicia sesión en la aplicación con credenciales predeterminadas
-        ProductCataloguePage productCataloguePage = landingPage.loginApplication("anshika@gmail.com", "Iamking@000");
+    @Test
+    public void OrderHistoryTest() throws InterruptedException {
+        // Crea el pedido directamente por el API
+        ApiFixtures.as(ApiFixtures.ORDERS_USER, ApiFixtures.ORDERS_PASSWORD).createOrder(productName, "India");
+
+        // Inicia sesión con credenciales predeterminadas (reutiliza la sesión si ya se inició antes)
+        ProductCataloguePage productCataloguePage = login(ApiFixtures.ORDERS_USER, ApiFixtures.ORDERS_PASSWORD);
 
         // Navega a la página de órdenes y verifica que el producto esté en el historial
         OrderPage orderPage = productCataloguePage.goToOrdersPage();
@@ -0,0 +1,118 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import testcomponents.TestHistoryStore;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Pruebas unitarias del índice de inestabilidad y del ranking de {@link TestHistoryStore}, con resultados de TestNG
+ * falsos y un historial en un archivo temporal.
+ */
+public class TestHistoryStoreTest {
+
+    private TestHistoryStore store;
+
+    @BeforeMethod
+    public void newStore() throws IOException {
+        store = new TestHistoryStore(Files.createTempDirectory("history").resolve("history.json"));
+    }
+
+    /**
+     * Una fila del DataProvider que siempre falla, intercalada con otra que siempre pasa, no es inestable.
+     */
+    @Test
+    public void deterministicRowFailureIsNotFlaky() {
+        for (int run = 0; run < 5; run++) {
+            store.recordOutcome(result("submitOrder", "shetty@gmail.com"), true);
+            store.recordOutcome(result("submitOrder", "anshika@gmail.com"), false);
+        }
+        TestHistoryStore.Stats stats = store.get(key("submitOrder"));
+        Assert.assertEquals(stats.recent, "PFPFPFPFPF");
+        Assert.assertEquals(stats.getFlakiness(), 0.0);
+        Assert.assertTrue(store.flakinessRanking().isEmpty());
+    }
+
+    /**
+     * Una fila que alterna entre aprobada y fallida sí es inestable, aunque la otra fila sea estable.
+     */
+    @Test
+    public void alternatingRowIsFlaky() {
+        for (int run = 0; run < 5; run++) {
+            store.recordOutcome(result("submitOrder", "shetty@gmail.com"), true);
+            store.recordOutcome(result("submitOrder", "anshika@gmail.com"), run % 2 == 0);
+        }
+        // 4 cambios en la fila inestable, 0 en la estable: 4 de 8 transiciones
+        Assert.assertEquals(store.get(key("submitOrder")).getFlakiness(), 0.5, 1e-9);
+        Assert.assertEquals(keys(store.flakinessRanking()), List.of(key("submitOrder")));
+    }
+
+    /**
+     * El ranking va de la más a la menos inestable y cuenta las ejecuciones que solo pasaron tras un reintento.
+     */
+    @Test
+    public void rankingOrdersByFlakiness() {
+        boolean[] flipping = {true, false, true, false};
+        boolean[] once = {true, true, true, false};
+        for (int run = 0; run < flipping.length; run++) {
+            store.recordOutcome(result("flipping"), flipping[run]);
+            store.recordOutcome(result("failedOnce"), once[run]);
+            store.recordOutcome(result("stable"), true);
+        }
+        ITestResult retried = result("retriedOnce");
+        store.recordRetry(retried);
+        store.recordOutcome(retried, true);
+        store.recordOutcome(result("retriedOnce"), true);
+
+        Assert.assertEquals(keys(store.flakinessRanking()),
+                List.of(key("flipping"), key("retriedOnce"), key("failedOnce")));
+        Assert.assertEquals(store.get(key("retriedOnce")).flaky, 1);
+        Assert.assertNull(store.get(key("neverRun")));
+    }
+
+    private static List<String> keys(List<Map.Entry<String, TestHistoryStore.Stats>> ranking) {
+        return ranking.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    private static String key(String methodName) {
+        return TestHistoryStoreTest.class.getName() + "." + methodName;
+    }
+
+    private static ITestResult result(String methodName, Object... parameters) {
+        ITestNGMethod method = (ITestNGMethod) Proxy.newProxyInstance(ITestNGMethod.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getRealClass":
+                            return TestHistoryStoreTest.class;
+                        case "getMethodName":
+                            return methodName;
+                        default:
+                            throw new UnsupportedOperationException(m.getName());
+                    }
+                });
+        return (ITestResult) Proxy.newProxyInstance(ITestResult.class.getClassLoader(),
+                new Class<?>[]{ITestResult.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "getParameters":
+                            return parameters;
+                        case "getStartMillis":
+                            return 1000L;
+                        case "getEndMillis":
+                            return 1250L;
+                        default:
+                            throw new UnsupportedOperationException(m.getName());
+                    }
+                });
+    }
+}